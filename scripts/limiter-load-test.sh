@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# Closed-loop load against a read endpoint, with an optional database slowdown in the middle, printing
+# per-second counts of served (2xx/4xx), shed (503) and failed (other) requests. With the limiter on,
+# goodput should dip while the database is slow and come back right after, instead of collapsing into timeouts.
+# Usage: TOKEN=<access token> [MYSQL="mysql -uroot -p... springboot_crud"] scripts/limiter-load-test.sh
+set -euo pipefail
+
+BASE_URL=${BASE_URL:-http://localhost:9192}
+API_PATH=${API_PATH:-/api/user/profile/1}
+CONCURRENCY=${CONCURRENCY:-64}
+DURATION=${DURATION:-30}
+SLOW_AT=${SLOW_AT:-10}
+SLOW_SECONDS=${SLOW_SECONDS:-8}
+: "${TOKEN:?set TOKEN to an access token}"
+
+OUT=$(mktemp)
+trap 'rm -f "$OUT"' EXIT
+
+worker() {
+    local end=$((SECONDS + DURATION))
+    while [ "$SECONDS" -lt "$end" ]; do
+        local code
+        code=$(curl -s -o /dev/null -m 10 -w '%{http_code}' -H "Authorization: Bearer $TOKEN" "$BASE_URL$API_PATH" || true)
+        echo "$(date +%s) $code"
+    done
+}
+
+for _ in $(seq "$CONCURRENCY"); do
+    worker >> "$OUT" &
+done
+
+# Holding a write lock on users stalls every query that touches it, like a database under heavy contention
+if [ -n "${MYSQL:-}" ]; then
+    (sleep "$SLOW_AT" && $MYSQL -e "LOCK TABLES users WRITE; SELECT SLEEP($SLOW_SECONDS); UNLOCK TABLES;" > /dev/null) &
+fi
+wait
+
+echo "second served shed failed"
+awk '{
+    if ($2 == 503) shed[$1]++
+    else if ($2 ~ /^[24]/) served[$1]++
+    else failed[$1]++
+    seen[$1] = 1
+} END {
+    n = asorti(seen, seconds)
+    for (i = 1; i <= n; i++) {
+        s = seconds[i]
+        printf "%d %d %d %d\n", i, served[s], shed[s], failed[s]
+    }
+}' "$OUT"
+curl -s -H "Authorization: Bearer $TOKEN" "$BASE_URL/api/admin/limits"
+echo
@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Response size of a user list in each encoding, with and without gzip.
+# Encode/decode cost is measured in-JVM instead, see PayloadCodecBenchmark (mvn -Pbenchmarks ...).
+# Usage: TOKEN=<access token> scripts/payload-benchmark.sh [path]
+# Needs a running instance, and enough users in the database for the sizes to mean something.
+set -euo pipefail
+
+API_PATH=${1:-/api/user/get-all-users}
+BASE_URL=${BASE_URL:-http://localhost:9192}
+: "${TOKEN:?set TOKEN to an access token}"
+
+measure() {
+    local accept=$1
+    local encoding=$2
+    local bytes
+    bytes=$(curl -s -o /dev/null -w '%{size_download}' \
+        -H "Authorization: Bearer $TOKEN" -H "Accept: $accept" -H "Accept-Encoding: $encoding" \
+        "$BASE_URL$API_PATH")
+    printf '%-30s %-10s %10s bytes\n' "$accept" "$encoding" "$bytes"
+}
+
+for accept in application/json application/cbor application/x-jackson-smile; do
+    for encoding in identity gzip; do
+        measure "$accept" "$encoding"
+    done
+done
@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Time to first request of the fast-startup build, with and without the AppCDS archive.
+# Usage: mvn -Pfast-startup package && scripts/startup-benchmark.sh [runs]
+# Needs the database from application.properties to be reachable.
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-9192}
+TARGET=target
+JAR=$(ls "$TARGET"/springboot-user-crud-*.jar | head -1)
+CP="$JAR:$TARGET/lib/*"
+MAIN=com.priteshchittrode.user_crud.SpringBootCrud
+
+measure() {
+    local label=$1
+    shift
+    local total=0
+    for i in $(seq "$RUNS"); do
+        local start
+        start=$(date +%s%N)
+        java "$@" -cp "$CP" "$MAIN" --spring.profiles.active=fast-startup --server.port="$PORT" \
+            > "$TARGET/startup-$label-$i.log" 2>&1 &
+        local pid=$!
+        # Any HTTP answer counts, the request goes through the full filter chain and dispatcher
+        until curl -s -o /dev/null "http://localhost:$PORT/api/auth/sign-in"; do
+            sleep 0.05
+        done
+        local ms=$(( ($(date +%s%N) - start) / 1000000 ))
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+        echo "$label run $i: ${ms} ms"
+        total=$((total + ms))
+    done
+    echo "$label average: $((total / RUNS)) ms"
+}
+
+measure default
+if [ -f "$TARGET/app-cds.jsa" ]; then
+    measure appcds -XX:SharedArchiveFile="$TARGET/app-cds.jsa"
+fi
@@ -0,0 +1,104 @@
+package com.priteshchittrode.user_crud.audit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Throughput of the audit path: the segment writer alone, then producers through the ring to disk.
+// Every iteration writes into a fresh temp directory that is deleted afterwards.
+// mvn -Pbenchmarks test-compile exec:exec@jmh -Djmh.includes=AuditLogBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogBenchmark {
+    private static final long SEGMENT_MAX_BYTES = 64L * 1024 * 1024;
+
+    @State(Scope.Thread)
+    public static class WriterState {
+        final AuditRingBuffer.Entry[] entries = new AuditRingBuffer.Entry[1024];
+        Path directory;
+        AuditSegmentWriter writer;
+        long events;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = AuditSegmentWriterTest.entry(i);
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("audit-writer");
+            writer = new AuditSegmentWriter(directory, SEGMENT_MAX_BYTES);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            writer.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PipelineState {
+        Path directory;
+        AuditLog auditLog;
+
+        @Setup(Level.Iteration)
+        public void start() throws IOException {
+            directory = Files.createTempDirectory("audit-pipeline");
+            auditLog = new AuditLog(true, 65536, AuditLog.FullPolicy.BLOCK, 1000,
+                    directory.toString(), SEGMENT_MAX_BYTES, 4096);
+            auditLog.start();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() throws IOException, InterruptedException {
+            auditLog.stop();
+            delete(directory);
+        }
+    }
+
+    // Flushes every 4096 events, the batch size the consumer uses by default
+    @Benchmark
+    public void segmentWriter(WriterState state) throws IOException {
+        long i = state.events++;
+        state.writer.write(state.entries[(int) i & (state.entries.length - 1)]);
+        if ((i & 4095) == 4095) {
+            state.writer.flush();
+        }
+    }
+
+    // BLOCK keeps producers from outrunning the writer, so this is the sustained rate to disk
+    @Benchmark
+    @Threads(4)
+    public void pipeline(PipelineState state) {
+        state.auditLog.record(AuditAction.SIGN_IN, 42L, true);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
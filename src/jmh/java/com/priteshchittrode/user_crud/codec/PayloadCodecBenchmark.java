@@ -0,0 +1,85 @@
+package com.priteshchittrode.user_crud.codec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import com.priteshchittrode.user_crud.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode and decode cost of a user list response in each format BinaryCodecConfig serves, no HTTP involved.
+// Response sizes over the wire, gzip included, come from scripts/payload-benchmark.sh.
+// mvn -Pbenchmarks test-compile exec:exec@jmh -Djmh.includes=PayloadCodecBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCodecBenchmark {
+    private static final TypeReference<ApiResponse<List<User>>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100"})
+    public int users;
+
+    private ObjectMapper mapper;
+    private ApiResponse<List<User>> response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same builders the converters start from, with Spring Boot's default of ISO dates
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        mapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        List<User> list = new ArrayList<>(users);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 30);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setId(1_000L + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhoneNumber("98765" + (10_000 + i));
+            user.setAddress(i + " Main Street, Pune, Maharashtra 411001");
+            user.setCreatedAt(createdAt.plusMinutes(i));
+            user.setUpdatedAt(createdAt.plusDays(1).plusMinutes(i));
+            list.add(user);
+        }
+        response = ApiResponse.success(list, "Users fetched successfully");
+        encoded = mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ApiResponse<List<User>> deserialize() throws IOException {
+        return mapper.readValue(encoded, RESPONSE_TYPE);
+    }
+}
@@ -0,0 +1,37 @@
+package com.priteshchittrode.user_crud.security;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// HmacJwtMinter against the JJWT builder it replaced, one token per operation.
+// mvn -Pbenchmarks test-compile exec:exec@jmh -Djmh.includes=HmacJwtMinterBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HmacJwtMinterBenchmark {
+    private final HmacJwtMinter minter = new HmacJwtMinter(TextCodec.BASE64.decode("javatechie_secret"));
+    private final long now = System.currentTimeMillis();
+    // Snowflake sized and changing, so neither side can reuse a previous payload
+    private long userId = 381_234_567_890_123_457L;
+
+    @Benchmark
+    public String hmacJwtMinter() {
+        return minter.mint(userId++, now, now + 900_000);
+    }
+
+    @Benchmark
+    public String jjwtBuilder() {
+        return HmacJwtMinterTest.jjwtToken(userId++, now, now + 900_000);
+    }
+}
@@ -0,0 +1,10 @@
+package com.priteshchittrode.user_crud.audit;
+
+public enum AuditAction {
+    SIGN_UP,
+    SIGN_IN,
+    REFRESH,
+    LOGOUT,
+    PROFILE_UPDATE,
+    DELETE
+}
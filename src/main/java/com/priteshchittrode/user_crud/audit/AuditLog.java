@@ -0,0 +1,198 @@
+package com.priteshchittrode.user_crud.audit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Request threads only fill a ring slot; one background thread writes the segments.
+// Memory is fixed by the ring size. When the ring is full, DROP counts and discards the event,
+// BLOCK waits up to block-timeout for space and then drops.
+@Slf4j
+@Component
+public class AuditLog {
+
+    public enum FullPolicy { DROP, BLOCK }
+
+    // An idle consumer parks for growing intervals, producers unpark it as soon as they publish
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final AuditRingBuffer ring;
+    private final AuditSegmentWriter segmentWriter;
+    private final FullPolicy fullPolicy;
+    private final long blockTimeoutNanos;
+    private final int maxBatch;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long written;
+    private volatile boolean running;
+    private volatile boolean consumerParked;
+    private Thread consumer;
+
+    public AuditLog(@Value("${app.audit.enabled:true}") boolean enabled,
+                    @Value("${app.audit.capacity:65536}") int capacity,
+                    @Value("${app.audit.full-policy:DROP}") FullPolicy fullPolicy,
+                    @Value("${app.audit.block-timeout:5}") long blockTimeoutMillis,
+                    @Value("${app.audit.directory:audit}") String directory,
+                    @Value("${app.audit.segment-max-bytes:67108864}") long segmentMaxBytes,
+                    @Value("${app.audit.max-batch:4096}") int maxBatch) {
+        this.enabled = enabled;
+        this.ring = new AuditRingBuffer(capacity);
+        this.segmentWriter = new AuditSegmentWriter(Paths.get(directory), segmentMaxBytes);
+        this.fullPolicy = fullPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.maxBatch = maxBatch;
+    }
+
+    public void record(AuditAction action, Long userId, boolean success) {
+        if (!enabled) {
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        AuditRingBuffer.Entry entry = ring.entry(sequence);
+        entry.timestamp = System.currentTimeMillis();
+        entry.action = action;
+        entry.userId = userId == null ? 0 : userId;
+        entry.success = success;
+        ring.publish(sequence);
+        recorded.increment();
+        if (consumerParked) {
+            consumerParked = false;
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // For changes made in a transaction: success once it committed, failure if it rolled back.
+    // Without an active transaction the change is already durable, so it is recorded right away.
+    public void recordOnCommit(AuditAction action, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(action, userId, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(action, userId, true);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    record(action, userId, false);
+                }
+            }
+        });
+    }
+
+    private long claim() {
+        long sequence = ring.tryClaim();
+        if (sequence >= 0 || fullPolicy == FullPolicy.DROP) {
+            return sequence;
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (sequence < 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(10_000);
+            sequence = ring.tryClaim();
+        }
+        return sequence;
+    }
+
+
+    // Consumer
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "audit-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private void consume() {
+        long next = ring.lastConsumed() + 1;
+        boolean dirty = false;
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (running || next <= ring.lastClaimed()) {
+            try {
+                int batch = 0;
+                while (batch < maxBatch && ring.isPublished(next)) {
+                    segmentWriter.write(ring.entry(next));
+                    next++;
+                    batch++;
+                }
+                if (batch > 0) {
+                    // Slots go back to producers only after they were copied out
+                    ring.markConsumed(next - 1);
+                    written += batch;
+                    dirty = true;
+                    idleParkNanos = MIN_IDLE_PARK_NANOS;
+                } else {
+                    if (dirty) {
+                        segmentWriter.flush();
+                        dirty = false;
+                    }
+                    idle(next, idleParkNanos);
+                    idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+                }
+            } catch (Exception e) {
+                log.warn("Audit write failed: {}", e.getMessage());
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        try {
+            segmentWriter.close();
+        } catch (Exception e) {
+            log.warn("Audit segment close failed: {}", e.getMessage());
+        }
+    }
+
+    // The flag goes up before the last look at the ring, and publish is a volatile store, so a producer
+    // either sees the flag and unparks or published early enough for that look to find its entry
+    private void idle(long next, long parkNanos) {
+        consumerParked = true;
+        if (running && !ring.isPublished(next)) {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+        consumerParked = false;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        log.info("Audit log stopped: {}", getStats());
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("written", written);
+        stats.put("backlog", ring.lastClaimed() - ring.lastConsumed());
+        stats.put("capacity", (long) ring.capacity());
+        return stats;
+    }
+}
@@ -0,0 +1,85 @@
+package com.priteshchittrode.user_crud.audit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Disruptor-style ring of preallocated entries: many producers claim sequences with a CAS, fill the slot
+// in place and publish it; the single consumer reads slots in sequence order and frees them in bulk.
+// Nothing is allocated per event.
+public class AuditRingBuffer {
+
+    // Mutable slot, only touched by the producer that claimed it until published, then by the consumer
+    public static final class Entry {
+        long timestamp;
+        AuditAction action;
+        long userId;
+        boolean success;
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // published[slot] == sequence once that sequence's entry is ready to read
+    private final AtomicLongArray published;
+    // Last sequence the consumer is done with, producers may not lap it
+    private volatile long consumed = -1;
+
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    // Producer side, returns -1 when the ring is full
+    public long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+            if (next - entries.length > consumed) {
+                return -1;
+            }
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    public Entry entry(long sequence) {
+        return entries[(int) sequence & mask];
+    }
+
+    // A full volatile store, AuditLog relies on it being ordered before the producer's read of the parked flag
+    public void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+
+    // Consumer side
+    public boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == sequence;
+    }
+
+    public long lastConsumed() {
+        return consumed;
+    }
+
+    public void markConsumed(long sequence) {
+        consumed = sequence;
+    }
+
+    public long lastClaimed() {
+        return claimed.get();
+    }
+}
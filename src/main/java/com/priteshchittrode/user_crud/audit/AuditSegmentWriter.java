@@ -0,0 +1,87 @@
+package com.priteshchittrode.user_crud.audit;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+// Append-only gzip segments of tab separated lines, rolled over by size. Only the consumer thread uses it.
+// The limit is on compressed bytes in the file; data still sitting in the writer and deflater buffers
+// (up to about 128 KB) lands after the check, so a segment can end slightly past segmentMaxBytes.
+class AuditSegmentWriter {
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final long segmentMaxBytes;
+    private BufferedWriter writer;
+    private CountingOutputStream file;
+    private int segmentIndex;
+
+    AuditSegmentWriter(Path directory, long segmentMaxBytes) {
+        this.directory = directory;
+        this.segmentMaxBytes = segmentMaxBytes;
+    }
+
+    void write(AuditRingBuffer.Entry entry) throws IOException {
+        if (writer == null || file.count >= segmentMaxBytes) {
+            roll();
+        }
+        StringBuilder line = new StringBuilder(48)
+                .append(entry.timestamp).append('\t')
+                .append(entry.action).append('\t')
+                .append(entry.userId).append('\t')
+                .append(entry.success ? 1 : 0).append('\n');
+        writer.append(line);
+    }
+
+    // Sync flush pushes what is buffered into the file without ending the gzip stream
+    void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        Path segment = directory.resolve("audit-" + LocalDateTime.now().format(SEGMENT_NAME) + "-" + (segmentIndex++) + ".log.gz");
+        file = new CountingOutputStream(Files.newOutputStream(segment, StandardOpenOption.CREATE_NEW));
+        writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(file, 64 * 1024, true),
+                StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        // FilterOutputStream would split this into single byte writes
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
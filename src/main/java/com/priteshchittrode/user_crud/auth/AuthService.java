@@ -1,13 +1,23 @@
 package com.priteshchittrode.user_crud.auth;
+import com.priteshchittrode.user_crud.audit.AuditAction;
+import com.priteshchittrode.user_crud.audit.AuditLog;
+import com.priteshchittrode.user_crud.outbox.OutboxEventType;
+import com.priteshchittrode.user_crud.outbox.UserOutbox;
+import com.priteshchittrode.user_crud.user.EmailFilter;
 import com.priteshchittrode.user_crud.user.User;
 import com.priteshchittrode.user_crud.user.UserRepository;
+import com.priteshchittrode.user_crud.user.UserStats;
 import com.priteshchittrode.user_crud.response.Result;
 import com.priteshchittrode.user_crud.response.ErrorType.*;
 import com.priteshchittrode.user_crud.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import java.time.LocalDateTime;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -15,57 +25,76 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserOutbox userOutbox;
+    private final AuditLog auditLog;
+    private final PasswordUpgradeWriter passwordUpgradeWriter;
+    private final UserStats userStats;
+    private final EmailFilter emailFilter;
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-z0-9+_.-]+@[a-z0-9.-]+$");
+
+    // Constant errors, shared across requests
+    private static final FieldRequiredError FIRST_NAME_REQUIRED = new FieldRequiredError("First name");
+    private static final FieldRequiredError LAST_NAME_REQUIRED = new FieldRequiredError("Last name");
+    private static final FieldRequiredError EMAIL_REQUIRED = new FieldRequiredError("Email");
+    private static final FieldRequiredError PASSWORD_REQUIRED = new FieldRequiredError("Password");
+    private static final InvalidPasswordError PASSWORD_TOO_SHORT = new InvalidPasswordError("Password must be at least 6 characters");
+    private static final MissingHeaderError REFRESH_TOKEN_MISSING = new MissingHeaderError("Refresh Token");
+    private static final ForbiddenError TOKEN_USER_MISMATCH = new ForbiddenError("Token does not belong to provided user");
+    private static final NotFoundError USER_NOT_FOUND = new NotFoundError("User not found");
+    private static final BadRequestError ALREADY_LOGGED_OUT = new BadRequestError("User already logged out");
 
     // Validation Methods
     private Result<Void> validateSignUpRequest(String firstName, String lastName, String email, String password) {
         if (firstName == null || firstName.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("First name"));
+            return Result.error(FIRST_NAME_REQUIRED);
         }
         if (lastName == null || lastName.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("Last name"));
+            return Result.error(LAST_NAME_REQUIRED);
         }
         if (email == null || email.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("Email"));
+            return Result.error(EMAIL_REQUIRED);
         }
         if (!isValidEmail(email)) {
-            return new Result.Error<>(new InvalidEmailError());
+            return Result.error(InvalidEmailError.INSTANCE);
         }
-        if (userRepository.findByEmail(email).isPresent()) {
-            return new Result.Error<>(new DuplicateEmailError());
+        // Most sign-up emails are new, a definite miss in the filter saves the lookup (the unique key still decides)
+        if (emailFilter.mightExist(email) && userRepository.findByEmail(email).isPresent()) {
+            return Result.error(DuplicateEmailError.INSTANCE);
         }
         if (password == null || password.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("Password"));
+            return Result.error(PASSWORD_REQUIRED);
         }
         if (password.length() < 6) {
-            return new Result.Error<>(new InvalidPasswordError("Password must be at least 6 characters"));
+            return Result.error(PASSWORD_TOO_SHORT);
         }
-        return new Result.Success<>(null);
+        return Result.success();
     }
 
 
     private Result<Void> validateSignInRequest(String email, String password) {
         if (email == null || email.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("Email"));
+            return Result.error(EMAIL_REQUIRED);
         }
         if (password == null || password.trim().isEmpty()) {
-            return new Result.Error<>(new FieldRequiredError("Password"));
+            return Result.error(PASSWORD_REQUIRED);
         }
-        return new Result.Success<>(null);
+        return Result.success();
     }
 
 
     private boolean isValidEmail(String email) {
-        String emailRegex = "^[a-z0-9+_.-]+@[a-z0-9.-]+$";
-        return email.matches(emailRegex);
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 
 
     // Authentication Methods
+    @Transactional
     public Result<AuthResponse> signUp(String firstName, String lastName, String email, String password) {
         try {
             Result<Void> validationResult = validateSignUpRequest(firstName, lastName, email, password);
             if (validationResult.isError()) {
-                return new Result.Error<>(validationResult.getErrorOrNull());
+                return validationResult.propagate();
             }
             User user = new User();
             user.setFirstName(firstName);
@@ -75,7 +104,8 @@ public class AuthService {
             user.setCreatedAt(LocalDateTime.now());
             user.setUpdatedAt(LocalDateTime.now());
 
-            User savedUser = userRepository.save(user);
+            // Flushed here so a duplicate email fails inside the try, not at commit
+            User savedUser = userRepository.saveAndFlush(user);
 
             String accessToken = jwtUtil.generateAccessToken(savedUser.getId());
             String refreshToken = jwtUtil.generateRefreshToken(savedUser.getId());
@@ -83,92 +113,123 @@ public class AuthService {
             savedUser.setRefreshToken(refreshToken);
             userRepository.save(savedUser);
 
-            savedUser.setPassword(null);
-            AuthResponse authResponse = new AuthResponse(savedUser, accessToken, refreshToken);
-
-            return new Result.Success<>(authResponse);
+            User publicUser = savedUser.withoutCredentials();
+            userOutbox.record(OutboxEventType.USER_SIGNED_UP, publicUser.getId(), publicUser);
+            AuthResponse authResponse = new AuthResponse(publicUser, accessToken, refreshToken);
+
+            auditLog.recordOnCommit(AuditAction.SIGN_UP, publicUser.getId());
+            userStats.onSignUp();
+            emailFilter.add(email);
+            return Result.success(authResponse);
+        } catch (DataIntegrityViolationException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            // Lost a race on the email, or the email still belongs to a soft deleted user awaiting purge
+            return Result.error(DuplicateEmailError.INSTANCE);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
+    // Read-write so the lookup hits the primary: a replica may not have the user yet, and the row saved
+    // back below must not be a stale replica copy
+    @Transactional
     public Result<AuthResponse> signIn(String email, String password) {
         try {
             Result<Void> validationResult = validateSignInRequest(email, password);
             if (validationResult.isError()) {
-                return new Result.Error<>(validationResult.getErrorOrNull());
+                return validationResult.propagate();
             }
             User user = userRepository.findByEmail(email).orElse(null);
 
             if (user == null || !passwordEncoder.matches(password, user.getPassword())) {
-                return new Result.Error<>(new InvalidCredentialsError());
+                auditLog.record(AuditAction.SIGN_IN, user == null ? null : user.getId(), false);
+                return Result.error(InvalidCredentialsError.INSTANCE);
+            }
+
+            // Outdated algorithm or cost, the raw password is only at hand right now
+            if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                passwordUpgradeWriter.submit(user.getId(), user.getPassword(), passwordEncoder.encode(password));
             }
 
             String accessToken = jwtUtil.generateAccessToken(user.getId());
             String refreshToken = jwtUtil.generateRefreshToken(user.getId());
 
+            boolean hadSession = user.getRefreshToken() != null;
             user.setRefreshToken(refreshToken);
             userRepository.save(user);
+            userStats.onSignIn(hadSession);
 
-            user.setPassword(null);
-            AuthResponse authResponse = new AuthResponse(user, accessToken, refreshToken);
+            // The entity is managed until commit, clearing its password would write it
+            AuthResponse authResponse = new AuthResponse(user.withoutCredentials(), accessToken, refreshToken);
 
-            return new Result.Success<>(authResponse);
+            auditLog.record(AuditAction.SIGN_IN, user.getId(), true);
+            return Result.success(authResponse);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
+    // Not readOnly: a refresh right after sign-in must see the token just written, a lagging replica would not
+    @Transactional
     public Result<String> refreshToken(Long userId, String refreshToken) {
         try {
             if (refreshToken == null || refreshToken.isEmpty()) {
-                return new Result.Error<>(new MissingHeaderError("Refresh Token"));
+                return Result.error(REFRESH_TOKEN_MISSING);
             }
             if (jwtUtil.isTokenExpired(refreshToken)) {
-                return new Result.Error<>(new TokenExpiredError());
+                return Result.error(TokenExpiredError.INSTANCE);
             }
 
             Long tokenUserId;
             try {
                 tokenUserId = jwtUtil.extractUserId(refreshToken);
             } catch (Exception e) {
-                return new Result.Error<>(new InvalidTokenError());
+                return Result.error(InvalidTokenError.INSTANCE);
             }
 
             if (!tokenUserId.equals(userId)) {
-                return new Result.Error<>(new ForbiddenError("Token does not belong to provided user"));
+                return Result.error(TOKEN_USER_MISMATCH);
             }
 
             User user = userRepository.findById(userId).orElse(null);
             if (user == null || user.getRefreshToken() == null || !refreshToken.equals(user.getRefreshToken())) {
-                return new Result.Error<>(new RefreshTokenMismatchError());
+                auditLog.record(AuditAction.REFRESH, userId, false);
+                return Result.error(RefreshTokenMismatchError.INSTANCE);
             }
 
             String newAccessToken = jwtUtil.generateAccessToken(userId);
-            return new Result.Success<>(newAccessToken);
+            auditLog.record(AuditAction.REFRESH, userId, true);
+            return Result.success(newAccessToken);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
+    @Transactional
     public Result<Void> logout(Long userId) {
         try {
             User user = userRepository.findById(userId).orElse(null);
             if (user == null) {
-                return new Result.Error<>(new NotFoundError("User not found"));
+                return Result.error(USER_NOT_FOUND);
             }
 
             if (user.getRefreshToken() == null) {
-                return new Result.Error<>(new BadRequestError("User already logged out"));
+                return Result.error(ALREADY_LOGGED_OUT);
             }
             user.setRefreshToken(null);
             userRepository.save(user);
-            return new Result.Success<>(null);
+            userOutbox.record(OutboxEventType.USER_LOGGED_OUT, userId, null);
+            auditLog.recordOnCommit(AuditAction.LOGOUT, userId);
+            userStats.onLogout();
+            return Result.success();
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
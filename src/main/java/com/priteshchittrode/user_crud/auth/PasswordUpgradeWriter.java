@@ -0,0 +1,97 @@
+package com.priteshchittrode.user_crud.auth;
+import com.priteshchittrode.user_crud.sharding.ShardContext;
+import com.priteshchittrode.user_crud.sharding.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Rehashed passwords from sign-in, written in JDBC batches off the request path.
+// The update only applies while the row still holds the hash that was verified, so a password
+// changed in the meantime is never overwritten. Anything dropped is simply upgraded at the next sign-in.
+@Slf4j
+@Component
+public class PasswordUpgradeWriter {
+    private static final String UPGRADE_SQL = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    // One pending upgrade per user, repeated sign-ins before a flush replace each other
+    private final Map<Long, Upgrade> pending = new ConcurrentHashMap<>();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private static final class Upgrade {
+        final long userId;
+        final String currentHash;
+        final String upgradedHash;
+
+        Upgrade(long userId, String currentHash, String upgradedHash) {
+            this.userId = userId;
+            this.currentHash = currentHash;
+            this.upgradedHash = upgradedHash;
+        }
+    }
+
+    public PasswordUpgradeWriter(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.password.upgrade-batch-size:200}") int batchSize,
+                                 @Value("${app.password.upgrade-max-pending:10000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+    public void submit(Long userId, String currentHash, String upgradedHash) {
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            dropped.increment();
+            return;
+        }
+        pending.put(userId, new Upgrade(userId, currentHash, upgradedHash));
+    }
+
+    @Scheduled(fixedDelayString = "${app.password.upgrade-flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Upgrade>> byShard = new HashMap<>();
+        for (Upgrade upgrade : pending.values()) {
+            if (pending.remove(upgrade.userId, upgrade)) {
+                byShard.computeIfAbsent(SnowflakeIdGenerator.shardOf(upgrade.userId), shard -> new ArrayList<>()).add(upgrade);
+            }
+        }
+        for (Map.Entry<Integer, List<Upgrade>> shard : byShard.entrySet()) {
+            ShardContext.set(shard.getKey());
+            try {
+                jdbcTemplate.batchUpdate(UPGRADE_SQL, shard.getValue(), batchSize, (statement, upgrade) -> {
+                    statement.setString(1, upgrade.upgradedHash);
+                    statement.setLong(2, upgrade.userId);
+                    statement.setString(3, upgrade.currentHash);
+                });
+                written.add(shard.getValue().size());
+            } catch (Exception e) {
+                dropped.add(shard.getValue().size());
+                log.warn("Password hash upgrade failed for {} users: {}", shard.getValue().size(), e.getMessage());
+            } finally {
+                ShardContext.set(null);
+            }
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("pending", (long) pending.size());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,37 @@
+package com.priteshchittrode.user_crud.codec;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Binary encodings of the same ApiResponse payloads, picked by Accept (and Content-Type for request bodies):
+// application/cbor or application/x-jackson-smile. These converters take the place of Spring's defaults
+// after the JSON converter, so JSON stays the answer for Accept: */* or no Accept at all.
+// Mappers go through the same customizers as the JSON one, so spring.jackson.* applies to every format.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.codec", name = "binary-enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryCodecConfig {
+
+    @Bean
+    @ConditionalOnClass(name = "com.fasterxml.jackson.dataformat.cbor.CBORFactory")
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2CborHttpMessageConverter(customize(Jackson2ObjectMapperBuilder.cbor(), customizers).build());
+    }
+
+    @Bean
+    @ConditionalOnClass(name = "com.fasterxml.jackson.dataformat.smile.SmileFactory")
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        return new MappingJackson2SmileHttpMessageConverter(customize(Jackson2ObjectMapperBuilder.smile(), customizers).build());
+    }
+
+    private static Jackson2ObjectMapperBuilder customize(Jackson2ObjectMapperBuilder builder,
+                                                         ObjectProvider<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+}
@@ -0,0 +1,128 @@
+package com.priteshchittrode.user_crud.concurrent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Thread safe bloom filter that grows instead of degrading: once a slice holds its capacity a new one is added
+// with twice the capacity and half the false positive rate, so the overall rate stays under twice the initial one.
+// No removals, callers rebuild from the source of truth when enough entries went stale.
+public class ScalableBloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private volatile Slice[] slices;
+
+    private static final class Slice {
+        final AtomicLongArray words;
+        final long bitCount;
+        final int hashCount;
+        final int capacity;
+        final double falsePositiveRate;
+        final AtomicInteger added = new AtomicInteger();
+
+        Slice(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long bits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2)));
+            this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+            this.bitCount = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        void put(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    // Lost a race on the word, retry with the fresh value
+                }
+            }
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        this.slices = new Slice[]{new Slice(Math.max(1, initialCapacity), falsePositiveRate)};
+    }
+
+    public void put(String key) {
+        long hash = hash64(key);
+        long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        Slice[] current = slices;
+        Slice last = current[current.length - 1];
+        if (last.added.incrementAndGet() > last.capacity) {
+            last = grow(last);
+        }
+        last.put(hash, hash2);
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long approximateSize() {
+        long size = 0;
+        for (Slice slice : slices) {
+            size += Math.min(slice.added.get(), slice.capacity);
+        }
+        return size;
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += slice.words.length() * 8L;
+        }
+        return bytes;
+    }
+
+    private synchronized Slice grow(Slice full) {
+        Slice[] current = slices;
+        Slice last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Slice next = new Slice((int) Math.min(Integer.MAX_VALUE / 2, full.capacity * 2L), full.falsePositiveRate / 2);
+        Slice[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = next;
+        slices = grown;
+        return next;
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with a 64-bit mixer so the low bits spread well
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
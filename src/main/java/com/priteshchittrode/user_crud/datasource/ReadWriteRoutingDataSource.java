@@ -0,0 +1,44 @@
+package com.priteshchittrode.user_crud.datasource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final ReplicaSelector replicaSelector;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, ReplicaSelector replicaSelector) {
+        this.primary = primary;
+        this.replicaSelector = replicaSelector;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaSelector.getReplicas().size(); i++) {
+            targets.put(i, replicaSelector.getReplicas().get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // readOnly transactions go to a replica, everything else stays on the primary
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int replica = replicaSelector.select();
+        return replica < 0 ? PRIMARY : replica;
+    }
+
+    @Override
+    public void close() {
+        replicaSelector.getReplicas().forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.priteshchittrode.user_crud.datasource;
+import com.priteshchittrode.user_crud.datasource.RoutingDataSourceProperties.Strategy;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaSelector {
+    private final List<HikariDataSource> replicas;
+    private final Strategy strategy;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+
+    // Replaced wholesale by the lag probe, reads fall back to the primary when none is healthy
+    private volatile boolean[] healthy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaSelector(List<HikariDataSource> replicas, Strategy strategy, long maxLagSeconds, String lagQuery) {
+        this.replicas = replicas;
+        this.strategy = strategy;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery == null || lagQuery.trim().isEmpty() ? null : lagQuery;
+        this.healthy = new boolean[replicas.size()];
+        Arrays.fill(healthy, true);
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    // Returns the index of the replica to read from, or -1 for the primary
+    public int select() {
+        int size = replicas.size();
+        if (size == 0) {
+            return -1;
+        }
+        return strategy == Strategy.LEAST_CONNECTIONS ? leastConnections(size) : roundRobin(size);
+    }
+
+    private int roundRobin(int size) {
+        boolean[] healthy = this.healthy;
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (healthy[candidate]) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private int leastConnections(int size) {
+        int best = -1;
+        int bestActive = Integer.MAX_VALUE;
+        boolean[] healthy = this.healthy;
+        for (int i = 0; i < size; i++) {
+            if (!healthy[i]) {
+                continue;
+            }
+            HikariPoolMXBean pool = replicas.get(i).getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+
+    @Scheduled(fixedDelayString = "${app.datasource.lag-check-interval:5000}")
+    public void checkLag() {
+        if (lagQuery == null) {
+            return;
+        }
+        boolean[] updated = new boolean[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get(i);
+            boolean ok;
+            try {
+                Long lag = readLagSeconds(replica);
+                ok = lag != null && lag <= maxLagSeconds;
+            } catch (Exception e) {
+                ok = false;
+            }
+            if (healthy[i] != ok) {
+                log.warn("Replica {} is now {}", replica.getPoolName(), ok ? "in rotation" : "out of rotation");
+            }
+            updated[i] = ok;
+        }
+        healthy = updated;
+    }
+
+    private Long readLagSeconds(HikariDataSource replica) throws Exception {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                // Not replicating (e.g. an embedded stand-in), nothing to lag behind
+                return 0L;
+            }
+            int column = lagColumn(rs.getMetaData());
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private int lagColumn(ResultSetMetaData meta) throws Exception {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String name = meta.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(name) || "Seconds_Behind_Master".equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.priteshchittrode.user_crud.datasource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.datasource", name = "routing-enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    public ReplicaSelector replicaSelector(RoutingDataSourceProperties properties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            replicas.add(createPool(properties.getReplicas().get(i), "replica-" + i));
+        }
+        return new ReplicaSelector(replicas, properties.getStrategy(),
+                properties.getMaxReplicationLag().getSeconds(), properties.getLagQuery());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(RoutingDataSourceProperties properties, ReplicaSelector replicaSelector) {
+        return new ReadWriteRoutingDataSource(createPool(properties.getPrimary(), "primary"), replicaSelector);
+    }
+
+    // The lazy proxy defers getConnection() until the first statement, by then the
+    // readOnly flag of the surrounding @Transactional is known and routing can see it
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+
+    private HikariDataSource createPool(HikariConfig config, String defaultName) {
+        if (config.getPoolName() == null) {
+            config.setPoolName(defaultName);
+        }
+        // Pools start on first use rather than at bean creation
+        HikariDataSource dataSource = new HikariDataSource();
+        config.copyStateTo(dataSource);
+        return dataSource;
+    }
+}
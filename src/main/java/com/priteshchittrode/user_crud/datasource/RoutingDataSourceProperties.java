@@ -0,0 +1,29 @@
+package com.priteshchittrode.user_crud.datasource;
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class RoutingDataSourceProperties {
+
+    public enum Strategy { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    // Turns on read/write splitting, otherwise the default spring.datasource is used
+    private boolean routingEnabled = false;
+
+    // Each pool is bound straight onto its own Hikari settings (jdbc-url, username, maximum-pool-size, ...)
+    private HikariConfig primary = new HikariConfig();
+    private List<HikariConfig> replicas = new ArrayList<>();
+
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+
+    // Replicas lagging more than this are skipped until they catch up
+    private Duration maxReplicationLag = Duration.ofSeconds(5);
+
+    // Query returning the lag in seconds, e.g. SHOW REPLICA STATUS on MySQL; empty disables lag checks
+    private String lagQuery;
+}
@@ -3,6 +3,8 @@ package com.priteshchittrode.user_crud.entity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -16,8 +18,14 @@ import javax.persistence.Table;
 @Table(name = "PRODUCT_TBL")
 public class Product {
 
+    // pooled-lo hands out a block of ids per round trip, shared with the JDBC bulk loader (product.ProductIdAllocator)
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "product-id")
+    @GenericGenerator(name = "product-id", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "product_id_seq"),
+            @Parameter(name = "increment_size", value = "1000"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private int id;
     private String name;
     private int quantity;
@@ -0,0 +1,88 @@
+package com.priteshchittrode.user_crud.idempotency;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded TTL store of responses by idempotency key. The first request for a key owns it and executes,
+// later ones wait on the owner's future. In-flight entries never expire or get evicted.
+@Component
+public class IdempotencyStore {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public static final class Entry {
+        final byte[] fingerprint;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE;
+
+        Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    public static final class Claim {
+        public final Entry entry;
+        public final boolean owner;
+
+        Claim(Entry entry, boolean owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+    }
+
+    public IdempotencyStore(@Value("${app.idempotency.ttl:3600000}") long ttlMillis,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    // Null when the store is full of in-flight requests, the caller then executes untracked
+    public Claim claim(String key, byte[] fingerprint) {
+        while (true) {
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                if (existing.expiresAt >= System.currentTimeMillis()) {
+                    return new Claim(existing, false);
+                }
+                entries.remove(key, existing);
+                continue;
+            }
+            if (entries.size() >= maxEntries && !evictSome()) {
+                return null;
+            }
+            Entry fresh = new Entry(fingerprint);
+            if (entries.putIfAbsent(key, fresh) == null) {
+                return new Claim(fresh, true);
+            }
+        }
+    }
+
+    public void complete(Entry entry, StoredResponse response) {
+        entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+        entry.response.complete(response);
+    }
+
+    // The owner failed, waiters are released with null and one of them takes over
+    public void abandon(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.response.complete(null);
+    }
+
+    // Drops expired entries, and if that frees nothing, up to a tenth of the completed ones
+    private boolean evictSome() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+        int toDrop = maxEntries / 10;
+        Iterator<Entry> values = entries.values().iterator();
+        while (entries.size() >= maxEntries && toDrop-- > 0 && values.hasNext()) {
+            if (values.next().response.isDone()) {
+                values.remove();
+            }
+        }
+        return entries.size() < maxEntries;
+    }
+}
@@ -0,0 +1,12 @@
+package com.priteshchittrode.user_crud.idempotency;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// The first execution's response exactly as it was written, replayed byte for byte
+@Getter
+@AllArgsConstructor
+public class StoredResponse {
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+}
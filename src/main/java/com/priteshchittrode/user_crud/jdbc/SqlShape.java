@@ -0,0 +1,60 @@
+package com.priteshchittrode.user_crud.jdbc;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Normalized statement text plus the column each ? binds to (null when it can't be told), worked out once per SQL string
+class SqlShape {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile("(?is)^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values");
+    private static final Pattern COMPARED_COLUMN = Pattern.compile("(?i)([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\blike)\\s*$");
+
+    final String text;
+    final String[] bindColumns;
+
+    private SqlShape(String text, String[] bindColumns) {
+        this.text = text;
+        this.bindColumns = bindColumns;
+    }
+
+    static SqlShape of(String sql) {
+        String text = STRING_LITERAL.matcher(sql).replaceAll("?");
+        text = NUMBER_LITERAL.matcher(text).replaceAll("?");
+        text = PLACEHOLDER_LIST.matcher(text).replaceAll("?...");
+        text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+        return new SqlShape(text, bindColumns(sql));
+    }
+
+    private static String[] bindColumns(String sql) {
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columnName(columns[i].trim());
+            }
+            return columns;
+        }
+        List<String> columns = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                Matcher compared = COMPARED_COLUMN.matcher(sql.substring(Math.max(0, i - 80), i));
+                columns.add(compared.find() ? columnName(compared.group(1)) : null);
+            }
+        }
+        return columns.toArray(new String[0]);
+    }
+
+    private static String columnName(String qualified) {
+        int dot = qualified.lastIndexOf('.');
+        return qualified.substring(dot + 1).replace("`", "").toLowerCase(Locale.ROOT);
+    }
+}
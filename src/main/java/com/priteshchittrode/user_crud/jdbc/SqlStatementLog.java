@@ -0,0 +1,79 @@
+package com.priteshchittrode.user_crud.jdbc;
+import lombok.extern.slf4j.Slf4j;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Decides per statement whether it is logged: always when over the slow threshold, otherwise a sampled fraction.
+// Output goes to this logger, which logback-spring.xml routes through an async appender.
+@Slf4j
+public class SqlStatementLog {
+    private static final int MAX_SHAPES = 2048;
+    private static final int MAX_BIND_LENGTH = 64;
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final boolean logBinds;
+    private final Set<String> redactColumns;
+    private final ConcurrentHashMap<String, SqlShape> shapes = new ConcurrentHashMap<>();
+
+    public SqlStatementLog(long slowThresholdMillis, double sampleRate, boolean logBinds, Set<String> redactColumns) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.sampleRate = sampleRate;
+        this.logBinds = logBinds;
+        this.redactColumns = redactColumns;
+    }
+
+    void record(String sql, Object[] binds, int bindCount, long elapsedNanos, long rows, int batchSize) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        if (!log.isInfoEnabled() || sql == null) {
+            return;
+        }
+        SqlShape shape = shape(sql);
+        log.info("{} durationMs={} rows={} batch={} sql=\"{}\" binds={}",
+                slow ? "slow-query" : "sampled-query",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, batchSize, shape.text,
+                logBinds ? formatBinds(shape, binds, bindCount) : "[]");
+    }
+
+    private SqlShape shape(String sql) {
+        SqlShape shape = shapes.get(sql);
+        if (shape == null) {
+            shape = SqlShape.of(sql);
+            // Ad hoc SQL with inlined literals would grow the cache without bound
+            if (shapes.size() < MAX_SHAPES) {
+                shapes.putIfAbsent(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    // Sensitive columns are always redacted, and so are strings bound to a column we couldn't identify
+    private String formatBinds(SqlShape shape, Object[] binds, int bindCount) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < bindCount; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            Object value = binds[i];
+            String column = i < shape.bindColumns.length ? shape.bindColumns[i] : null;
+            if (value == null) {
+                out.append("null");
+            } else if ((column != null && redactColumns.contains(column)) || (column == null && value instanceof String)) {
+                out.append("***");
+            } else if (value instanceof String) {
+                String text = (String) value;
+                out.append('\'').append(text.length() > MAX_BIND_LENGTH ? text.substring(0, MAX_BIND_LENGTH) + "..." : text).append('\'');
+            } else if (value instanceof byte[]) {
+                out.append("<").append(((byte[]) value).length).append(" bytes>");
+            } else {
+                out.append(value);
+            }
+        }
+        return out.append(']').toString();
+    }
+}
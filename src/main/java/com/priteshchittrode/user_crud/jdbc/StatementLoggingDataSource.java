@@ -0,0 +1,213 @@
+package com.priteshchittrode.user_crud.jdbc;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Times every statement at the JDBC level, whatever issued it (Hibernate, JdbcTemplate, Flyway).
+// Binds are captured into a reused array, formatting only happens for statements that get logged.
+public class StatementLoggingDataSource extends DelegatingDataSource {
+    private final SqlStatementLog statementLog;
+
+    public StatementLoggingDataSource(DataSource targetDataSource, SqlStatementLog statementLog) {
+        super(targetDataSource);
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementLoggingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return wrapStatement(result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(result, CallableStatement.class, (String) args[0]);
+                case "createStatement":
+                    return wrapStatement(result, Statement.class, null);
+                default:
+                    return result;
+            }
+        }
+
+        private Object wrapStatement(Object statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new StatementHandler(statement, sql));
+        }
+    }
+
+
+    private class StatementHandler implements InvocationHandler {
+        private final Object target;
+        private String sql;
+        private Object[] binds = new Object[16];
+        private int bindCount;
+        private int batchSize;
+        private long batchStartNanos;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && PreparedStatement.class.isAssignableFrom(method.getDeclaringClass())) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return StatementLoggingDataSource.invoke(target, method, args);
+            }
+            switch (name) {
+                case "clearParameters":
+                    bindCount = 0;
+                    return StatementLoggingDataSource.invoke(target, method, args);
+                case "addBatch":
+                    if (batchSize++ == 0) {
+                        batchStartNanos = System.nanoTime();
+                    }
+                    return StatementLoggingDataSource.invoke(target, method, args);
+                case "executeQuery":
+                    return executeQuery(method, args);
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute":
+                    return execute(method, args);
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return executeBatch(method, args);
+                case "close":
+                    // Closing the statement closes its result set without going through our proxy
+                    if (openResultSet != null) {
+                        openResultSet.record();
+                    }
+                    return StatementLoggingDataSource.invoke(target, method, args);
+                default:
+                    return StatementLoggingDataSource.invoke(target, method, args);
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private Object executeQuery(Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0) {
+                sql = (String) args[0];
+            }
+            long start = System.nanoTime();
+            ResultSet resultSet = (ResultSet) StatementLoggingDataSource.invoke(target, method, args);
+            openResultSet = new ResultSetHandler(resultSet, this, start);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, openResultSet);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0) {
+                sql = (String) args[0];
+            }
+            long start = System.nanoTime();
+            Object result = StatementLoggingDataSource.invoke(target, method, args);
+            long rows = result instanceof Number ? ((Number) result).longValue() : -1;
+            statementLog.record(sql, binds, bindCount, System.nanoTime() - start, rows, 0);
+            return result;
+        }
+
+        private Object executeBatch(Method method, Object[] args) throws Throwable {
+            long start = batchSize > 0 ? batchStartNanos : System.nanoTime();
+            Object result = StatementLoggingDataSource.invoke(target, method, args);
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            // Binds of the last row only, the shape is the same for every row
+            statementLog.record(sql, binds, bindCount, System.nanoTime() - start, rows, batchSize);
+            batchSize = 0;
+            return result;
+        }
+    }
+
+
+    // Counts rows as they are read, the statement is logged when the result set is closed
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final long startNanos;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, long startNanos) {
+            this.target = target;
+            this.statement = statement;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = StatementLoggingDataSource.invoke(target, method, args);
+            if ("next".equals(method.getName())) {
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+            } else if ("close".equals(method.getName())) {
+                record();
+            }
+            return result;
+        }
+
+        void record() {
+            if (!recorded) {
+                recorded = true;
+                statementLog.record(statement.sql, statement.binds, statement.bindCount, System.nanoTime() - startNanos, rows, 0);
+            }
+        }
+    }
+}
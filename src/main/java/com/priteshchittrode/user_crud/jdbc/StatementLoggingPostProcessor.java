@@ -0,0 +1,37 @@
+package com.priteshchittrode.user_crud.jdbc;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Wraps the primary "dataSource" bean only. With routing or sharding that is the outer proxy,
+// so each statement is seen once no matter which pool serves it.
+@Component
+public class StatementLoggingPostProcessor implements BeanPostProcessor {
+    private final boolean enabled;
+    private final SqlStatementLog statementLog;
+
+    public StatementLoggingPostProcessor(@Value("${app.sql-log.enabled:true}") boolean enabled,
+                                         @Value("${app.sql-log.slow-threshold:200}") long slowThresholdMillis,
+                                         @Value("${app.sql-log.sample-rate:0}") double sampleRate,
+                                         @Value("${app.sql-log.log-binds:false}") boolean logBinds,
+                                         @Value("${app.sql-log.redact-columns:password,refresh_token,email,phone_number,address,first_name,last_name}") String redactColumns) {
+        this.enabled = enabled;
+        Set<String> columns = new HashSet<>();
+        for (String column : redactColumns.split(",")) {
+            columns.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        this.statementLog = new SqlStatementLog(slowThresholdMillis, sampleRate, logBinds, columns);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource && !(bean instanceof StatementLoggingDataSource)) {
+            return new StatementLoggingDataSource((DataSource) bean, statementLog);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,92 @@
+package com.priteshchittrode.user_crud.limiter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gradient concurrency limit: compares recent latency with a slowly moving baseline. While they agree the limit
+// grows by about sqrt(limit), once recent latency rises the limit shrinks in proportion (at most halving per step).
+// Acquiring is lock free, the limit update takes a short lock once per completed request.
+public class GradientLimiter {
+    private static final double SHORT_RTT_WEIGHT = 0.1;
+    private static final double LONG_RTT_WEIGHT = 1.0 / 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private boolean sampled;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    // Returns the in-flight count including this request, or -1 when rejected
+    public int tryAcquire() {
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return -1;
+        }
+        accepted.increment();
+        return current;
+    }
+
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (!sampled) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            sampled = true;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+        // Baseline left over from a slow period, let it catch up with recovered latency faster
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // Well below the limit latency says nothing about it, and growing it would only raise a ceiling nobody reaches
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("limit", (long) limit);
+        stats.put("inFlight", (long) inFlight.get());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        synchronized (this) {
+            stats.put("recentLatencyMicros", (long) (shortRttNanos / 1000));
+            stats.put("baselineLatencyMicros", (long) (longRttNanos / 1000));
+        }
+        return stats;
+    }
+}
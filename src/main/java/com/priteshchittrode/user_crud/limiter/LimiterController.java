@@ -0,0 +1,21 @@
+package com.priteshchittrode.user_crud.limiter;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/admin/limits")
+@RequiredArgsConstructor
+public class LimiterController {
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+
+    // Current limit, in-flight requests and accepted/rejected counts per route group
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Long>>>> getLimits() {
+        return ResponseEntity.ok(ApiResponse.success(concurrencyLimitFilter.getStats(), "Limits fetched successfully"));
+    }
+}
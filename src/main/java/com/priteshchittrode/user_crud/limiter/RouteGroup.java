@@ -0,0 +1,23 @@
+package com.priteshchittrode.user_crud.limiter;
+
+// Groups get separate limits, so slow writes can't starve sign-in or reads
+public enum RouteGroup {
+    AUTH,
+    READS,
+    WRITES;
+
+    // Null for routes that are not limited (admin endpoints)
+    public static RouteGroup of(String method, String uri) {
+        if (uri.startsWith("/api/auth/")) {
+            return AUTH;
+        }
+        if (!uri.startsWith("/api/user") && !uri.startsWith("/api/product")) {
+            return null;
+        }
+        // The batch lookup is a POST but only reads
+        if ("GET".equals(method) || "HEAD".equals(method) || "/api/user/batch".equals(uri)) {
+            return READS;
+        }
+        return WRITES;
+    }
+}
@@ -0,0 +1,38 @@
+package com.priteshchittrode.user_crud.outbox;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the most recent events in memory, for local runs and tests
+public class InMemoryOutboxSink implements OutboxSink {
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> read(int shard, long afterOffset, int limit) {
+        List<OutboxEvent> result = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getShard() == shard && event.getOffset() > afterOffset) {
+                result.add(event);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.priteshchittrode.user_crud.outbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.nio.file.Paths;
+
+// Built-in sinks, any other OutboxSink bean (e.g. a broker producer) replaces them
+@Configuration(proxyBeanMethods = false)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${app.outbox.file:outbox/user-events.jsonl}") String file, ObjectMapper objectMapper) {
+        return new FileOutboxSink(Paths.get(file), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink inMemoryOutboxSink(@Value("${app.outbox.memory-capacity:10000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+}
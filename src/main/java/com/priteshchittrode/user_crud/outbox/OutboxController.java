@@ -0,0 +1,31 @@
+package com.priteshchittrode.user_crud.outbox;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/user/events")
+@RequiredArgsConstructor
+public class OutboxController {
+    private final OutboxRelay outboxRelay;
+
+    @Value("${app.outbox.read-max:1000}")
+    private int readMax;
+
+
+    // Offsets are per shard: pass the shard and the offset of the last event seen on it, 0 to start from the oldest retained event
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<OutboxEvent>>> getEvents(@RequestParam(defaultValue = "0") int shard,
+                                                                   @RequestParam(defaultValue = "0") long after,
+                                                                   @RequestParam(defaultValue = "100") int limit) {
+        if (shard < 0 || shard >= outboxRelay.getShardCount()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("shard must be between 0 and " + (outboxRelay.getShardCount() - 1)));
+        }
+        List<OutboxEvent> events = outboxRelay.readAfter(shard, after, Math.max(1, Math.min(limit, readMax)));
+        return ResponseEntity.ok(ApiResponse.success(events, "Events fetched successfully"));
+    }
+}
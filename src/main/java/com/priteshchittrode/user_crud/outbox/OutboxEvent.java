@@ -0,0 +1,18 @@
+package com.priteshchittrode.user_crud.outbox;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// offset is the relay's publish sequence within the user's shard, consumers resume each shard from the last one they saw
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    private long offset;
+    private int shard;
+    private Long userId;
+    private OutboxEventType type;
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package com.priteshchittrode.user_crud.outbox;
+
+public enum OutboxEventType {
+    USER_SIGNED_UP,
+    USER_UPDATED,
+    USER_LOGGED_OUT,
+    USER_DELETED
+}
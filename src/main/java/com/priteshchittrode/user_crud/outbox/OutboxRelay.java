@@ -0,0 +1,148 @@
+package com.priteshchittrode.user_crud.outbox;
+import com.priteshchittrode.user_crud.sharding.ShardContext;
+import com.priteshchittrode.user_crud.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Drains user_outbox into the sink. The state row lock keeps one relay active across instances, and offsets are
+// handed out in the order rows are picked up, so a transaction that commits late still gets the next offset
+// instead of being skipped behind a higher id.
+// Events are written on the user's shard, so every shard is relayed on its own with its own state row: offsets
+// are a per-shard sequence, like partitions of a topic, and consumers keep one cursor per shard.
+@Slf4j
+@Component
+public class OutboxRelay {
+    private static final RowMapper<OutboxEvent> PENDING_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"), 0, rs.getLong("user_id"), OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"), rs.getTimestamp("created_at").toLocalDateTime());
+
+    private static final RowMapper<OutboxEvent> PUBLISHED_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("published_seq"), 0, rs.getLong("user_id"), OutboxEventType.valueOf(rs.getString("event_type")),
+            rs.getString("payload"), rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, ObjectProvider<ShardRoutingDataSource> shards, PlatformTransactionManager transactionManager, OutboxSink sink,
+                       @Value("${app.outbox.batch-size:500}") int batchSize,
+                       @Value("${app.outbox.max-batches:20}") int maxBatchesPerRun,
+                       @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    public int getShardCount() {
+        ShardRoutingDataSource shardRouting = shards.getIfAvailable();
+        return shardRouting == null ? 1 : shardRouting.getShardCount();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:500}")
+    public void relay() {
+        boolean sharded = shards.getIfAvailable() != null;
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            // Set before the transaction starts, its connection is fetched on the first statement
+            ShardContext.set(sharded ? shard : null);
+            try {
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    final int current = shard;
+                    Integer published = transactionTemplate.execute(status -> relayBatch(current));
+                    if (published == null || published < batchSize) {
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                // One unreachable shard must not hold back the others
+                log.warn("Outbox relay failed on shard {}, will retry: {}", shard, e.getMessage());
+            } finally {
+                ShardContext.set(null);
+            }
+        }
+    }
+
+    private int relayBatch(int shard) {
+        Long lastSeq = jdbcTemplate.queryForObject("SELECT last_seq FROM outbox_relay_state WHERE id = 1 FOR UPDATE", Long.class);
+        List<OutboxEvent> pending = jdbcTemplate.query(
+                "SELECT id, user_id, event_type, payload, created_at FROM user_outbox WHERE published_seq IS NULL ORDER BY id LIMIT ?",
+                PENDING_MAPPER, batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // offset holds the row id until the publish sequence is assigned
+        List<Object[]> updates = new ArrayList<>(pending.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long seq = lastSeq;
+        for (OutboxEvent event : pending) {
+            long rowId = event.getOffset();
+            event.setOffset(++seq);
+            event.setShard(shard);
+            updates.add(new Object[]{seq, now, rowId});
+        }
+
+        try {
+            sink.publish(pending);
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox sink rejected batch: " + e.getMessage(), e);
+        }
+        jdbcTemplate.batchUpdate("UPDATE user_outbox SET published_seq = ?, published_at = ? WHERE id = ?", updates);
+        jdbcTemplate.update("UPDATE outbox_relay_state SET last_seq = ? WHERE id = 1", seq);
+        return pending.size();
+    }
+
+    // Incremental sync for pull consumers, served from the published_seq index of one shard
+    public List<OutboxEvent> readAfter(int shard, long afterOffset, int limit) {
+        ShardContext.set(shards.getIfAvailable() == null ? null : shard);
+        try {
+            List<OutboxEvent> events = jdbcTemplate.query(
+                    "SELECT published_seq, user_id, event_type, payload, created_at FROM user_outbox WHERE published_seq > ? ORDER BY published_seq LIMIT ?",
+                    PUBLISHED_MAPPER, afterOffset, limit);
+            for (OutboxEvent event : events) {
+                event.setShard(shard);
+            }
+            return events;
+        } finally {
+            ShardContext.set(null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:3600000}")
+    public void cleanup() {
+        boolean sharded = shards.getIfAvailable() != null;
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            ShardContext.set(sharded ? shard : null);
+            try {
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update("DELETE FROM user_outbox WHERE published_at < ? LIMIT ?", cutoff, batchSize);
+                } while (deleted == batchSize);
+            } catch (Exception e) {
+                log.warn("Outbox cleanup failed on shard {}: {}", shard, e.getMessage());
+            } finally {
+                ShardContext.set(null);
+            }
+        }
+    }
+}
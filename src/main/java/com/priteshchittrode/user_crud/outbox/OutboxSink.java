@@ -0,0 +1,7 @@
+package com.priteshchittrode.user_crud.outbox;
+import java.util.List;
+
+// Where the relay pushes events, in offset order. A batch that throws is retried, so delivery is at-least-once.
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events) throws Exception;
+}
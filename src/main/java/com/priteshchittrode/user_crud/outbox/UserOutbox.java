@@ -0,0 +1,23 @@
+package com.priteshchittrode.user_crud.outbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+// Writes events on the caller's transaction, so they commit or roll back together with the user change
+@Component
+@RequiredArgsConstructor
+public class UserOutbox {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long userId, Object payload) throws JsonProcessingException {
+        jdbcTemplate.update("INSERT INTO user_outbox (user_id, event_type, payload, created_at) VALUES (?, ?, ?, ?)",
+                userId, type.name(), payload == null ? null : objectMapper.writeValueAsString(payload), LocalDateTime.now());
+    }
+}
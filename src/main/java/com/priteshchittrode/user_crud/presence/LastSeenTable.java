@@ -0,0 +1,117 @@
+package com.priteshchittrode.user_crud.presence;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Open addressing table of userId -> last seen millis over primitive arrays, recording a hit allocates nothing.
+// Slots are claimed with a CAS on the key and never freed, the tracker swaps in a compacted table instead.
+final class LastSeenTable {
+    private static final long EMPTY = 0;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray seen;
+    // Last value written to the database, an entry is dirty while seen is newer
+    private final AtomicLongArray flushed;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+
+    LastSeenTable(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1) << 1);
+        this.keys = new AtomicLongArray(slots);
+        this.seen = new AtomicLongArray(slots);
+        this.flushed = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    // False when the table is full
+    boolean touch(long userId, long now, long resolutionMillis) {
+        int index = slot(userId);
+        for (int probes = 0; probes <= mask; probes++) {
+            long key = keys.get(index);
+            if (key == EMPTY) {
+                if (!keys.compareAndSet(index, EMPTY, userId)) {
+                    key = keys.get(index);
+                } else {
+                    size.incrementAndGet();
+                    key = userId;
+                }
+            }
+            if (key == userId) {
+                // Skipping near-identical timestamps keeps hot users from bouncing the cache line on every request
+                if (now - seen.get(index) >= resolutionMillis) {
+                    seen.lazySet(index, now);
+                }
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    // 0 when unknown
+    long lastSeen(long userId) {
+        int index = slot(userId);
+        for (int probes = 0; probes <= mask; probes++) {
+            long key = keys.get(index);
+            if (key == userId) {
+                return seen.get(index);
+            }
+            if (key == EMPTY) {
+                return 0;
+            }
+            index = (index + 1) & mask;
+        }
+        return 0;
+    }
+
+    int countSeenSince(long since) {
+        int count = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (keys.get(i) != EMPTY && seen.get(i) >= since) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    interface EntryVisitor {
+        void visit(int slot, long userId, long seen, long flushed);
+    }
+
+    void forEach(EntryVisitor visitor) {
+        for (int i = 0; i <= mask; i++) {
+            long key = keys.get(i);
+            if (key != EMPTY) {
+                visitor.visit(i, key, seen.get(i), flushed.get(i));
+            }
+        }
+    }
+
+    void markFlushed(int slot, long value) {
+        flushed.set(slot, value);
+    }
+
+    // Used while compacting, before the table is published
+    void copy(long userId, long seenValue, long flushedValue) {
+        int index = slot(userId);
+        while (keys.get(index) != EMPTY) {
+            index = (index + 1) & mask;
+        }
+        keys.set(index, userId);
+        seen.set(index, seenValue);
+        flushed.set(index, flushedValue);
+        size.incrementAndGet();
+    }
+
+    private int slot(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
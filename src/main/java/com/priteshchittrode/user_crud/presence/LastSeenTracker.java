@@ -0,0 +1,166 @@
+package com.priteshchittrode.user_crud.presence;
+import com.priteshchittrode.user_crud.sharding.ShardContext;
+import com.priteshchittrode.user_crud.sharding.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Last authenticated request per user, recorded by JwtFilter in memory and flushed to users.last_seen_at
+// in JDBC batches every few seconds. When the table fills up, entries already flushed and older than
+// the retention are dropped by swapping in a compacted copy (it doubles up to max-capacity if that frees too little).
+@Slf4j
+@Component
+public class LastSeenTracker {
+    private static final String FLUSH_SQL = "UPDATE users SET last_seen_at = ? WHERE id = ?";
+    private static final String LOAD_SQL = "SELECT last_seen_at FROM users WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long onlineWindowMillis;
+    private final long retentionMillis;
+    private final long resolutionMillis;
+    private final int maxCapacity;
+    private final int batchSize;
+
+    private volatile LastSeenTable table;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+
+    private static final class Change {
+        final int slot;
+        final long userId;
+        final long seen;
+
+        Change(int slot, long userId, long seen) {
+            this.slot = slot;
+            this.userId = userId;
+            this.seen = seen;
+        }
+    }
+
+    public LastSeenTracker(JdbcTemplate jdbcTemplate,
+                           @Value("${app.presence.capacity:262144}") int capacity,
+                           @Value("${app.presence.max-capacity:4194304}") int maxCapacity,
+                           @Value("${app.presence.online-window:300000}") long onlineWindowMillis,
+                           @Value("${app.presence.retention:3600000}") long retentionMillis,
+                           @Value("${app.presence.resolution:1000}") long resolutionMillis,
+                           @Value("${app.presence.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = new LastSeenTable(capacity);
+        this.maxCapacity = maxCapacity;
+        this.onlineWindowMillis = onlineWindowMillis;
+        this.retentionMillis = retentionMillis;
+        this.resolutionMillis = resolutionMillis;
+        this.batchSize = batchSize;
+    }
+
+    public void touch(long userId) {
+        if (!table.touch(userId, System.currentTimeMillis(), resolutionMillis)) {
+            dropped.increment();
+        }
+    }
+
+    // Memory first, the column only for users not seen since this instance started
+    public long lastSeen(long userId) {
+        long seen = table.lastSeen(userId);
+        if (seen != 0) {
+            return seen;
+        }
+        ShardContext.set(SnowflakeIdGenerator.shardOf(userId));
+        try {
+            List<Timestamp> stored = jdbcTemplate.queryForList(LOAD_SQL, Timestamp.class, userId);
+            return stored.isEmpty() || stored.get(0) == null ? 0 : stored.get(0).getTime();
+        } finally {
+            ShardContext.set(null);
+        }
+    }
+
+    public boolean isOnline(long lastSeen) {
+        return lastSeen != 0 && lastSeen >= System.currentTimeMillis() - onlineWindowMillis;
+    }
+
+    public long getOnlineWindowMillis() {
+        return onlineWindowMillis;
+    }
+
+
+    @Scheduled(fixedDelayString = "${app.presence.flush-interval:5000}")
+    public void flush() {
+        LastSeenTable current = table;
+        Map<Integer, List<Change>> byShard = new HashMap<>();
+        current.forEach((slot, userId, seen, flushed) -> {
+            if (seen > flushed) {
+                byShard.computeIfAbsent(SnowflakeIdGenerator.shardOf(userId), shard -> new ArrayList<>())
+                        .add(new Change(slot, userId, seen));
+            }
+        });
+        for (Map.Entry<Integer, List<Change>> shard : byShard.entrySet()) {
+            List<Change> changes = shard.getValue();
+            ShardContext.set(shard.getKey());
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, changes, batchSize, (statement, change) -> {
+                    statement.setTimestamp(1, new Timestamp(change.seen));
+                    statement.setLong(2, change.userId);
+                });
+                for (Change change : changes) {
+                    current.markFlushed(change.slot, change.seen);
+                }
+                flushedRows.add(changes.size());
+            } catch (Exception e) {
+                // Left dirty, retried on the next flush
+                log.warn("Last seen flush failed for {} users: {}", changes.size(), e.getMessage());
+            } finally {
+                ShardContext.set(null);
+            }
+        }
+        if (current.size() > current.capacity() * 3 / 4) {
+            compact(current);
+        }
+    }
+
+    // Keeps dirty and recently seen entries. A hit landing in the old table during the swap is lost,
+    // the user's next request records it again.
+    private void compact(LastSeenTable current) {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        int[] kept = new int[1];
+        current.forEach((slot, userId, seen, flushed) -> {
+            if (seen > flushed || seen >= cutoff) {
+                kept[0]++;
+            }
+        });
+        int capacity = current.capacity();
+        if (kept[0] > capacity / 2 && capacity < maxCapacity) {
+            capacity = Math.min(maxCapacity, capacity * 2);
+        }
+        LastSeenTable compacted = new LastSeenTable(capacity);
+        int limit = compacted.capacity() * 3 / 4;
+        current.forEach((slot, userId, seen, flushed) -> {
+            if ((seen > flushed || seen >= cutoff) && compacted.size() < limit) {
+                compacted.copy(userId, seen, flushed);
+            }
+        });
+        table = compacted;
+        log.info("Last seen table compacted: {} of {} entries kept, capacity {}", compacted.size(), current.size(), compacted.capacity());
+    }
+
+
+    public Map<String, Long> getStats() {
+        LastSeenTable current = table;
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("onlineNow", (long) current.countSeenSince(System.currentTimeMillis() - onlineWindowMillis));
+        stats.put("onlineWindowSeconds", onlineWindowMillis / 1000);
+        stats.put("tracked", (long) current.size());
+        stats.put("capacity", (long) current.capacity());
+        stats.put("flushed", flushedRows.sum());
+        stats.put("dropped", dropped.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,14 @@
+package com.priteshchittrode.user_crud.presence;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Presence {
+    private Long userId;
+    private LocalDateTime lastSeenAt;
+    private boolean online;
+}
@@ -0,0 +1,33 @@
+package com.priteshchittrode.user_crud.presence;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/user/presence")
+@RequiredArgsConstructor
+public class PresenceController {
+    private final LastSeenTracker lastSeenTracker;
+
+
+    // Users seen within the online window, counted from memory
+    @GetMapping("/online")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getOnline() {
+        return ResponseEntity.ok(ApiResponse.success(lastSeenTracker.getStats(), "Presence fetched successfully"));
+    }
+
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<ApiResponse<Presence>> getPresence(@PathVariable Long userId) {
+        long lastSeen = lastSeenTracker.lastSeen(userId);
+        LocalDateTime lastSeenAt = lastSeen == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault());
+        Presence presence = new Presence(userId, lastSeenAt, lastSeenTracker.isOnline(lastSeen));
+        return ResponseEntity.ok(ApiResponse.success(presence, "Presence fetched successfully"));
+    }
+}
@@ -0,0 +1,14 @@
+package com.priteshchittrode.user_crud.product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpsertResult {
+    private int inserted;
+    private int updated;
+    // Ids that matched no row, or adjustments that would have taken stock below zero
+    private int rejected;
+}
@@ -0,0 +1,18 @@
+package com.priteshchittrode.user_crud.product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.priteshchittrode.user_crud.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of PRODUCT_TBL, the version is a digest of the content and doubles as the ETag
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshot {
+    private final String version;
+    private final List<Product> products;
+
+    @JsonIgnore
+    private final Map<Integer, Product> productsById;
+}
@@ -0,0 +1,93 @@
+package com.priteshchittrode.user_crud.product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Plain JDBC batches, one transaction per chunk so a large feed never holds one long transaction
+@Component
+public class ProductBulkWriter {
+    private static final String INSERT_SQL = "INSERT INTO product_tbl (id, name, quantity, price) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_PRICE_SQL = "UPDATE product_tbl SET price = ? WHERE id = ?";
+    // Quantities on existing rows are adjustments, stock leased out by StockReservationEngine is not in the column
+    private static final String ADJUST_QUANTITY_SQL = "UPDATE product_tbl SET quantity = quantity + ? WHERE id = ? AND quantity + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductIdAllocator productIdAllocator;
+    private final int chunkSize;
+
+    public ProductBulkWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ProductIdAllocator productIdAllocator,
+                             @Value("${app.product.bulk-chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.productIdAllocator = productIdAllocator;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkUpsertResult upsertPrices(List<ProductUpsert> items) {
+        List<Object[]> updates = new ArrayList<>();
+        List<ProductUpsert> inserts = new ArrayList<>();
+        for (ProductUpsert item : items) {
+            if (item.getId() == null) {
+                inserts.add(item);
+            } else {
+                updates.add(new Object[]{item.getPrice(), item.getId()});
+            }
+        }
+        int updated = update(UPDATE_PRICE_SQL, updates);
+        return new BulkUpsertResult(insert(inserts), updated, updates.size() - updated);
+    }
+
+    public BulkUpsertResult upsertQuantities(List<ProductUpsert> items) {
+        List<Object[]> updates = new ArrayList<>();
+        List<ProductUpsert> inserts = new ArrayList<>();
+        for (ProductUpsert item : items) {
+            if (item.getId() == null) {
+                inserts.add(item);
+            } else {
+                updates.add(new Object[]{item.getQuantity(), item.getId(), item.getQuantity()});
+            }
+        }
+        int updated = update(ADJUST_QUANTITY_SQL, updates);
+        return new BulkUpsertResult(insert(inserts), updated, updates.size() - updated);
+    }
+
+
+    private int update(String sql, List<Object[]> rows) {
+        int updated = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, chunk));
+            for (int count : counts) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    private int insert(List<ProductUpsert> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        int nextId = productIdAllocator.allocate(items.size());
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (ProductUpsert item : items) {
+            rows.add(new Object[]{nextId++, item.getName(),
+                    item.getQuantity() == null ? 0 : item.getQuantity(),
+                    item.getPrice() == null ? 0.0 : item.getPrice()});
+        }
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_SQL, chunk));
+        }
+        return rows.size();
+    }
+}
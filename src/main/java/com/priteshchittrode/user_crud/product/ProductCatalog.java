@@ -0,0 +1,94 @@
+package com.priteshchittrode.user_crud.product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.priteshchittrode.user_crud.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+// Near-cache of the catalog, readers grab the current snapshot without locking
+@Slf4j
+@Component
+public class ProductCatalog {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long refreshMillis;
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean dirty = true;
+    private volatile long loadedAt;
+
+    public ProductCatalog(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                          @Value("${app.product.catalog-refresh-interval:10000}") long refreshMillis) throws JsonProcessingException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.refreshMillis = refreshMillis;
+        this.snapshot = new CatalogSnapshot(digest(Collections.emptyList()), Collections.emptyList(), Collections.emptyMap());
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Product get(int id) {
+        return snapshot.getProductsById().get(id);
+    }
+
+    // Local writes ask for a rebuild on the next tick, writes from other instances show up within refreshMillis
+    public void invalidate() {
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.product.catalog-check-interval:1000}")
+    public void refreshIfStale() {
+        if (dirty || System.currentTimeMillis() - loadedAt >= refreshMillis) {
+            dirty = false;
+            try {
+                reload();
+            } catch (Exception e) {
+                dirty = true;
+                log.warn("Product catalog refresh failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reload() throws JsonProcessingException {
+        List<Product> products = new ArrayList<>();
+        // Stock sitting in instance leases is still unreserved, count it as available
+        jdbcTemplate.query("SELECT p.id, p.name, p.quantity + COALESCE(SUM(l.quantity), 0), p.price FROM product_tbl p"
+                + " LEFT JOIN stock_lease l ON l.product_id = p.id GROUP BY p.id, p.name, p.quantity, p.price ORDER BY p.id", rs -> {
+            products.add(new Product(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getDouble(4)));
+        });
+
+        Map<Integer, Product> byId = new HashMap<>(products.size() * 2);
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+        }
+        String version = digest(products);
+        loadedAt = System.currentTimeMillis();
+
+        if (snapshot.getVersion().equals(version)) {
+            return;
+        }
+        snapshot = new CatalogSnapshot(version, Collections.unmodifiableList(products), Collections.unmodifiableMap(byId));
+    }
+
+    // SHA-256 of the serialized rows, every instance holding the same catalog lands on the same version
+    private String digest(List<Product> products) throws JsonProcessingException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(products)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
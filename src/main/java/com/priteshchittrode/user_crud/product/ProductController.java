@@ -0,0 +1,96 @@
+package com.priteshchittrode.user_crud.product;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import com.priteshchittrode.user_crud.response.ErrorType;
+import com.priteshchittrode.user_crud.response.Result;
+import com.priteshchittrode.user_crud.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/product")
+@RequiredArgsConstructor
+public class ProductController {
+    private final ProductService productService;
+
+
+    // Clients send the last ETag back and get a 304 until the catalog content changes, on any instance
+    @GetMapping("/catalog")
+    public ResponseEntity<ApiResponse<CatalogSnapshot>> getCatalog(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        CatalogSnapshot snapshot = productService.getCatalog().getValueOrNull();
+        String etag = "\"" + snapshot.getVersion() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(snapshot, "Catalog fetched successfully"));
+    }
+
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<Product>> getProduct(@PathVariable int id) {
+        Result<Product> result = productService.getProduct(id);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Product fetched successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+
+    // Bulk writes are admin only (SecurityConfig)
+    @PostMapping("/bulk/prices")
+    public ResponseEntity<ApiResponse<BulkUpsertResult>> upsertPrices(@RequestBody List<ProductUpsert> items) {
+        Result<BulkUpsertResult> result = productService.upsertPrices(items);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Prices updated successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+
+    // Existing products get quantity added (negative to remove), new products start with it
+    @PostMapping("/bulk/quantities")
+    public ResponseEntity<ApiResponse<BulkUpsertResult>> upsertQuantities(@RequestBody List<ProductUpsert> items) {
+        Result<BulkUpsertResult> result = productService.upsertQuantities(items);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Quantities updated successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<ApiResponse<StockReservation>> reserveStock(@PathVariable int id, @RequestBody Map<String, Integer> request,
+                                                                      @RequestAttribute("userId") Long userId) {
+        Result<StockReservation> result = productService.reserveStock(id, request.get("quantity"), userId);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Stock reserved successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+
+    // Gives back exactly what the reservation took, a second release is a 409
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<ApiResponse<StockReservation>> releaseStock(@PathVariable long reservationId,
+                                                                      @RequestAttribute("userId") Long userId) {
+        Result<StockReservation> result = productService.releaseStock(reservationId, userId);
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Stock released successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+    // Helper Methods
+    private <T> ResponseEntity<ApiResponse<T>> handleErrorResult(ErrorType error) {
+        return ResponseEntity.status(error.getHttpStatus()).body(ApiResponse.error(error.getMessage()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.priteshchittrode.user_crud.product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+// Reserves id blocks from product_id_seq with the same pooled-lo contract Hibernate uses for Product:
+// read next_val, move it past the block, own [next_val, next_val + count)
+@Component
+public class ProductIdAllocator {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean reconciled;
+
+    public ProductIdAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Returns the first id of a block of count ids
+    public int allocate(int count) {
+        Integer first = transactionTemplate.execute(status -> {
+            List<Integer> current = jdbcTemplate.queryForList("SELECT next_val FROM product_id_seq FOR UPDATE", Integer.class);
+            int next = current.isEmpty() ? 1 : current.get(0);
+            if (!reconciled) {
+                // Ids from the old hibernate_sequence may already be ahead of this table
+                Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM product_tbl", Integer.class);
+                next = Math.max(next, maxId + 1);
+            }
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO product_id_seq (next_val) VALUES (?)", next + count);
+            } else {
+                jdbcTemplate.update("UPDATE product_id_seq SET next_val = ?", next + count);
+            }
+            return next;
+        });
+        reconciled = true;
+        return first;
+    }
+}
@@ -0,0 +1,6 @@
+package com.priteshchittrode.user_crud.product;
+import com.priteshchittrode.user_crud.entity.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductRepository extends JpaRepository<Product, Integer> {
+}
@@ -0,0 +1,171 @@
+package com.priteshchittrode.user_crud.product;
+import com.priteshchittrode.user_crud.response.ErrorType.*;
+import com.priteshchittrode.user_crud.response.Result;
+import com.priteshchittrode.user_crud.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+    private final ProductRepository productRepository;
+    private final StockReservationEngine stockReservationEngine;
+    private final ProductCatalog productCatalog;
+    private final ProductBulkWriter productBulkWriter;
+    private final StockReservationLedger stockReservationLedger;
+
+    @Value("${app.product.bulk-max-items:100000}")
+    private int bulkMaxItems;
+
+    // Constant errors, shared across requests
+    private static final ValidationError QUANTITY_NOT_POSITIVE = new ValidationError("quantity", "Must be a positive number");
+    private static final ResourceNotFoundError PRODUCT_NOT_FOUND = new ResourceNotFoundError("Product");
+    private static final ConflictError INSUFFICIENT_STOCK = new ConflictError("Insufficient stock");
+    private static final BadRequestError ITEMS_REQUIRED = new BadRequestError("At least one item is required");
+    private static final ResourceNotFoundError RESERVATION_NOT_FOUND = new ResourceNotFoundError("Reservation");
+    private static final ConflictError RESERVATION_ALREADY_RELEASED = new ConflictError("Reservation already released");
+
+    // Validation Methods
+    private Result<Void> validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            return Result.error(QUANTITY_NOT_POSITIVE);
+        }
+        return Result.success();
+    }
+
+
+    private Result<Void> validateBulkRequest(List<ProductUpsert> items, boolean prices) {
+        if (items == null || items.isEmpty()) {
+            return Result.error(ITEMS_REQUIRED);
+        }
+        if (items.size() > bulkMaxItems) {
+            return Result.error(new BadRequestError("At most " + bulkMaxItems + " items per request"));
+        }
+        for (int i = 0; i < items.size(); i++) {
+            ProductUpsert item = items.get(i);
+            if (item.getId() == null && (item.getName() == null || item.getName().trim().isEmpty())) {
+                return Result.error(new ValidationError("items[" + i + "].name", "Required for new products"));
+            }
+            if (prices && (item.getPrice() == null || item.getPrice() < 0)) {
+                return Result.error(new ValidationError("items[" + i + "].price", "Must be zero or more"));
+            }
+            if (!prices && item.getQuantity() == null) {
+                return Result.error(new ValidationError("items[" + i + "].quantity", "Required"));
+            }
+            if (!prices && item.getId() == null && item.getQuantity() < 0) {
+                return Result.error(new ValidationError("items[" + i + "].quantity", "Must be zero or more for new products"));
+            }
+        }
+        return Result.success();
+    }
+
+
+    // Catalog Operations
+    public Result<CatalogSnapshot> getCatalog() {
+        return Result.success(productCatalog.getSnapshot());
+    }
+
+
+    public Result<Product> getProduct(int productId) {
+        try {
+            Product product = productCatalog.get(productId);
+            if (product == null) {
+                // Could be newer than the snapshot
+                product = productRepository.findById(productId).orElse(null);
+            }
+            if (product == null) {
+                return Result.error(PRODUCT_NOT_FOUND);
+            }
+            return Result.success(product);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+
+
+    public Result<BulkUpsertResult> upsertPrices(List<ProductUpsert> items) {
+        try {
+            Result<Void> requestValidation = validateBulkRequest(items, true);
+            if (requestValidation.isError()) {
+                return requestValidation.propagate();
+            }
+            BulkUpsertResult result = productBulkWriter.upsertPrices(items);
+            productCatalog.invalidate();
+            return Result.success(result);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+
+
+    public Result<BulkUpsertResult> upsertQuantities(List<ProductUpsert> items) {
+        try {
+            Result<Void> requestValidation = validateBulkRequest(items, false);
+            if (requestValidation.isError()) {
+                return requestValidation.propagate();
+            }
+            BulkUpsertResult result = productBulkWriter.upsertQuantities(items);
+            productCatalog.invalidate();
+            return Result.success(result);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+
+
+    // Stock Operations
+    public Result<StockReservation> reserveStock(int productId, Integer quantity, Long userId) {
+        try {
+            Result<Void> quantityValidation = validateQuantity(quantity);
+            if (quantityValidation.isError()) {
+                return quantityValidation.propagate();
+            }
+
+            if (stockReservationEngine.reserve(productId, quantity)) {
+                return Result.success(stockReservationLedger.record(productId, userId, quantity));
+            }
+            // Only the failure path pays for telling a missing product from an empty one
+            if (!productRepository.existsById(productId)) {
+                return Result.error(PRODUCT_NOT_FOUND);
+            }
+            return Result.error(INSUFFICIENT_STOCK);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+
+
+    // The quantity comes from the ledger, never from the caller
+    public Result<StockReservation> releaseStock(long reservationId, Long userId) {
+        try {
+            // Not written yet: only the instance that took it can see it, and the flush would find nothing to write
+            StockReservation reservation = stockReservationLedger.findPending(reservationId);
+            if (reservation != null) {
+                if (reservation.getUserId() != userId) {
+                    return Result.error(AccessDeniedError.INSTANCE);
+                }
+                if (stockReservationLedger.releasePending(reservation)) {
+                    stockReservationEngine.release(reservation.getProductId(), reservation.getQuantity());
+                    return Result.success(reservation);
+                }
+            }
+
+            reservation = stockReservationLedger.find(reservationId);
+            if (reservation == null) {
+                return Result.error(RESERVATION_NOT_FOUND);
+            }
+            if (reservation.getUserId() != userId) {
+                return Result.error(AccessDeniedError.INSTANCE);
+            }
+            if (reservation.isReleased() || !stockReservationEngine.releaseRecorded(reservation)) {
+                return Result.error(RESERVATION_ALREADY_RELEASED);
+            }
+            reservation.setReleased(true);
+            return Result.success(reservation);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.priteshchittrode.user_crud.product;
+import lombok.Data;
+
+// One line of a bulk feed, rows without an id are inserted as new products
+@Data
+public class ProductUpsert {
+    private Integer id;
+    private String name;
+    private Double price;
+    private Integer quantity;
+}
@@ -0,0 +1,22 @@
+package com.priteshchittrode.user_crud.product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+    // Snowflake id, past 2^53 so JavaScript clients get it as a string
+    @JsonSerialize(using = ToStringSerializer.class)
+    private long id;
+    private int productId;
+    @JsonIgnore
+    private long userId;
+    private int quantity;
+    @JsonIgnore
+    private boolean released;
+}
@@ -0,0 +1,385 @@
+package com.priteshchittrode.user_crud.product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PRODUCT_TBL.quantity stays the authority: stock is leased from it in blocks with a conditional
+// UPDATE ... WHERE quantity >= ?, and reservations are then served from the in-memory lease with a CAS.
+// A unit can only be handed out after the database gave it up, so no instance can oversell.
+// Every lease is mirrored in STOCK_LEASE under this instance's owner id, in the same transaction that moves
+// the stock, so leases of an instance that died without returning them are reclaimed by the next one to flush.
+@Slf4j
+@Component
+public class StockReservationEngine {
+    private static final String LEASE_SQL = "UPDATE product_tbl SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+    private static final String RETURN_SQL = "UPDATE product_tbl SET quantity = quantity + ? WHERE id = ?";
+    private static final String LEASE_ADD_SQL = "INSERT INTO stock_lease (owner, product_id, quantity) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity)";
+    private static final String LEASE_SUBTRACT_SQL = "UPDATE stock_lease SET quantity = quantity - ? WHERE owner = ? AND product_id = ?";
+    private static final String LEASE_DELETE_SQL = "DELETE FROM stock_lease WHERE owner = ? AND product_id = ? AND quantity = 0";
+    private static final String OWNER_REGISTER_SQL = "INSERT INTO stock_lease_owner (owner, heartbeat_at) VALUES (?, ?) ON DUPLICATE KEY UPDATE heartbeat_at = VALUES(heartbeat_at)";
+    private static final String OWNER_HEARTBEAT_SQL = "UPDATE stock_lease_owner SET heartbeat_at = ? WHERE owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationLedger ledger;
+    private final int leaseSize;
+    private final long idleMillis;
+    private final long leaseTimeoutMillis;
+    private final String owner = UUID.randomUUID().toString();
+    private final Map<Integer, StockLease> leases = new ConcurrentHashMap<>();
+    // Only flipped after the owner row committed, until then every lease transaction (re)inserts it
+    private volatile boolean registered;
+    private volatile long lastReclaim;
+
+    static final class StockLease {
+        final int productId;
+        final AtomicLong available = new AtomicLong();
+        volatile long lastUsed = System.currentTimeMillis();
+        // Set once the flusher dropped this lease from the map, late callers must move to a fresh one
+        volatile boolean retired;
+
+        StockLease(int productId) {
+            this.productId = productId;
+        }
+    }
+
+    public StockReservationEngine(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  StockReservationLedger ledger,
+                                  @Value("${app.product.stock-lease-size:100}") int leaseSize,
+                                  @Value("${app.product.stock-lease-idle:30000}") long idleMillis,
+                                  @Value("${app.product.stock-lease-timeout:300000}") long leaseTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledger = ledger;
+        this.leaseSize = leaseSize;
+        this.idleMillis = idleMillis;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+
+    // Reservation
+    public boolean reserve(int productId, int quantity) {
+        StockLease lease = leases.computeIfAbsent(productId, StockLease::new);
+        lease.lastUsed = System.currentTimeMillis();
+        if (tryTake(lease, quantity)) {
+            return true;
+        }
+
+        // One thread per product goes to the database, the rest keep hitting the fast path
+        synchronized (lease) {
+            if (lease.retired) {
+                return reserve(productId, quantity);
+            }
+            while (true) {
+                if (tryTake(lease, quantity)) {
+                    return true;
+                }
+                long shortfall = quantity - lease.available.get();
+                if (shortfall <= 0) {
+                    continue;
+                }
+                long chunk = Math.max(shortfall, leaseSize);
+                if (leaseFromDb(productId, chunk)) {
+                    lease.available.addAndGet(chunk);
+                } else if (chunk > shortfall && leaseFromDb(productId, shortfall)) {
+                    lease.available.addAndGet(shortfall);
+                } else {
+                    return false;
+                }
+            }
+        }
+    }
+
+    // Only for quantities backed by a StockReservationLedger entry, anything else would mint stock
+    void release(int productId, int quantity) {
+        StockLease lease = leases.computeIfAbsent(productId, StockLease::new);
+        lease.lastUsed = System.currentTimeMillis();
+        lease.available.addAndGet(quantity);
+        if (lease.retired) {
+            long unused = lease.available.getAndSet(0);
+            if (unused > 0) {
+                giveBack(Collections.singletonList(new Object[]{unused, productId}), false);
+            }
+        }
+    }
+
+    // A written reservation: marking it released and growing this instance's lease row commit together
+    public boolean releaseRecorded(StockReservation reservation) {
+        Boolean released = transactionTemplate.execute(status -> {
+            if (!ledger.markReleased(reservation.getId())) {
+                return false;
+            }
+            touchOwner();
+            jdbcTemplate.update(LEASE_ADD_SQL, owner, reservation.getProductId(), reservation.getQuantity());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(released)) {
+            return false;
+        }
+        registered = true;
+        release(reservation.getProductId(), reservation.getQuantity());
+        return true;
+    }
+
+    private boolean tryTake(StockLease lease, long quantity) {
+        AtomicLong available = lease.available;
+        long current;
+        do {
+            current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private boolean leaseFromDb(int productId, long quantity) {
+        Boolean leased = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(LEASE_SQL, quantity, productId, quantity) == 0) {
+                return false;
+            }
+            touchOwner();
+            jdbcTemplate.update(LEASE_ADD_SQL, owner, productId, quantity);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(leased)) {
+            return false;
+        }
+        registered = true;
+        return true;
+    }
+
+    // Must run inside the transaction that adds to STOCK_LEASE, so rows never outlive a reclaimed owner
+    private void touchOwner() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        if (!registered) {
+            jdbcTemplate.update(OWNER_REGISTER_SQL, owner, now);
+        } else if (jdbcTemplate.update(OWNER_HEARTBEAT_SQL, now, owner) == 0) {
+            throw new IllegalStateException("Stock leases of " + owner + " were reclaimed");
+        }
+    }
+
+
+    // Background flush
+    @Scheduled(fixedDelayString = "${app.product.stock-flush-interval:1000}")
+    public void flush() {
+        writeLedger();
+        heartbeat();
+
+        long now = System.currentTimeMillis();
+        List<Object[]> returns = new ArrayList<>();
+        List<Object[]> retiredReturns = new ArrayList<>();
+        List<StockLease> refills = new ArrayList<>();
+
+        for (StockLease lease : leases.values()) {
+            if (now - lease.lastUsed > idleMillis) {
+                // Idle: hand everything back and forget the product
+                long unused;
+                synchronized (lease) {
+                    leases.remove(lease.productId, lease);
+                    lease.retired = true;
+                    unused = lease.available.getAndSet(0);
+                }
+                retiredReturns.add(new Object[]{unused, lease.productId});
+            } else {
+                long excess = takeExcess(lease);
+                if (excess > 0) {
+                    returns.add(new Object[]{excess, lease.productId});
+                } else if (lease.available.get() < leaseSize / 4) {
+                    refills.add(lease);
+                }
+            }
+        }
+
+        if (!returns.isEmpty()) {
+            giveBack(returns, false);
+        }
+        if (!retiredReturns.isEmpty()) {
+            giveBack(retiredReturns, true);
+        }
+        if (!refills.isEmpty()) {
+            refill(refills);
+        }
+        if (now - lastReclaim >= leaseTimeoutMillis / 4) {
+            lastReclaim = now;
+            try {
+                reclaimStale(now);
+            } catch (Exception e) {
+                log.warn("Reclaiming stale stock leases failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Reservations are written in one batch, and the stock they took leaves this instance's lease rows with them.
+    // Ones released before they were written took nothing in the end.
+    private void writeLedger() {
+        List<StockReservation> drained = ledger.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> taken = new HashMap<>();
+        for (StockReservation reservation : drained) {
+            if (!reservation.isReleased()) {
+                taken.merge(reservation.getProductId(), (long) reservation.getQuantity(), Long::sum);
+            }
+        }
+        List<Object[]> args = new ArrayList<>(taken.size());
+        taken.forEach((productId, quantity) -> args.add(new Object[]{quantity, owner, productId}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ledger.insert(drained);
+                if (!args.isEmpty()) {
+                    jdbcTemplate.batchUpdate(LEASE_SUBTRACT_SQL, args);
+                }
+            });
+        } catch (RuntimeException e) {
+            ledger.restore(drained);
+            log.warn("Writing {} stock reservations failed, retrying on next flush: {}", drained.size(), e.getMessage());
+        }
+    }
+
+    // A missing owner row means another instance took this one for dead and already returned its leases
+    private void heartbeat() {
+        if (!registered) {
+            return;
+        }
+        if (jdbcTemplate.update(OWNER_HEARTBEAT_SQL, new Timestamp(System.currentTimeMillis()), owner) == 0) {
+            log.error("Stock leases of {} were reclaimed, dropping them", owner);
+            registered = false;
+            for (StockLease lease : leases.values()) {
+                synchronized (lease) {
+                    leases.remove(lease.productId, lease);
+                    lease.retired = true;
+                    lease.available.set(0);
+                }
+            }
+        }
+    }
+
+    // Releases can pile up more than a lease worth of stock, give the surplus back
+    private long takeExcess(StockLease lease) {
+        long current;
+        do {
+            current = lease.available.get();
+            if (current <= 2L * leaseSize) {
+                return 0;
+            }
+        } while (!lease.available.compareAndSet(current, leaseSize));
+        return current - leaseSize;
+    }
+
+    // returns are {quantity, productId}, dropRows also deletes the emptied lease rows of retired products
+    private void giveBack(List<Object[]> returns, boolean dropRows) {
+        List<Object[]> moved = new ArrayList<>(returns.size());
+        List<Object[]> dropped = new ArrayList<>();
+        for (Object[] r : returns) {
+            if ((long) r[0] > 0) {
+                moved.add(r);
+            }
+            if (dropRows) {
+                dropped.add(new Object[]{owner, r[1]});
+            }
+        }
+        List<Object[]> subtracts = new ArrayList<>(moved.size());
+        for (Object[] r : moved) {
+            subtracts.add(new Object[]{r[0], owner, r[1]});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!moved.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETURN_SQL, moved);
+                jdbcTemplate.batchUpdate(LEASE_SUBTRACT_SQL, subtracts);
+            }
+            if (!dropped.isEmpty()) {
+                jdbcTemplate.batchUpdate(LEASE_DELETE_SQL, dropped);
+            }
+        });
+    }
+
+    // Tops up busy products ahead of demand, all conditional decrements go out as one batch
+    private void refill(List<StockLease> refills) {
+        List<Object[]> args = new ArrayList<>(refills.size());
+        for (StockLease lease : refills) {
+            args.add(new Object[]{leaseSize, lease.productId, leaseSize});
+        }
+        int[] counts = transactionTemplate.execute(status -> {
+            // Relies on exact per-statement update counts, which MySQL Connector/J reports for UPDATE batches
+            int[] updated = jdbcTemplate.batchUpdate(LEASE_SQL, args);
+            List<Object[]> leased = new ArrayList<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] > 0) {
+                    leased.add(new Object[]{owner, refills.get(i).productId, leaseSize});
+                }
+            }
+            if (!leased.isEmpty()) {
+                touchOwner();
+                jdbcTemplate.batchUpdate(LEASE_ADD_SQL, leased);
+            }
+            return updated;
+        });
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                registered = true;
+                refills.get(i).available.addAndGet(leaseSize);
+            }
+        }
+    }
+
+    // Owners that stopped heartbeating for leaseTimeoutMillis crashed or hung, their stock goes back to PRODUCT_TBL.
+    // Also runs on the first flush, so a restarted instance returns what its previous run still held.
+    private void reclaimStale(long now) {
+        Timestamp cutoff = new Timestamp(now - leaseTimeoutMillis);
+        Integer reclaimed = transactionTemplate.execute(status -> {
+            List<String> stale = jdbcTemplate.queryForList(
+                    "SELECT owner FROM stock_lease_owner WHERE heartbeat_at < ? AND owner <> ? FOR UPDATE", String.class, cutoff, owner);
+            for (String staleOwner : stale) {
+                List<Object[]> returns = jdbcTemplate.query(
+                        "SELECT quantity, product_id FROM stock_lease WHERE owner = ? AND quantity > 0 FOR UPDATE",
+                        (rs, i) -> new Object[]{rs.getLong(1), rs.getInt(2)}, staleOwner);
+                if (!returns.isEmpty()) {
+                    jdbcTemplate.batchUpdate(RETURN_SQL, returns);
+                }
+                jdbcTemplate.update("DELETE FROM stock_lease WHERE owner = ?", staleOwner);
+                jdbcTemplate.update("DELETE FROM stock_lease_owner WHERE owner = ?", staleOwner);
+            }
+            return stale.size();
+        });
+        if (reclaimed != null && reclaimed > 0) {
+            log.info("Reclaimed leased stock of {} stale instances", reclaimed);
+        }
+    }
+
+    @PreDestroy
+    public void returnAll() {
+        writeLedger();
+        List<Object[]> returns = new ArrayList<>();
+        for (StockLease lease : leases.values()) {
+            long unused = lease.available.getAndSet(0);
+            if (unused > 0) {
+                returns.add(new Object[]{unused, lease.productId});
+            }
+        }
+        if (!returns.isEmpty()) {
+            giveBack(returns, false);
+            log.info("Returned leased stock for {} products", returns.size());
+        }
+        if (registered) {
+            // Rows still holding stock belong to reservations that could not be written, leave them to the reclaim
+            jdbcTemplate.update("DELETE FROM stock_lease WHERE owner = ? AND quantity = 0", owner);
+            jdbcTemplate.update("DELETE FROM stock_lease_owner WHERE owner = ? AND NOT EXISTS (SELECT 1 FROM stock_lease WHERE owner = ?)", owner, owner);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.priteshchittrode.user_crud.product;
+import com.priteshchittrode.user_crud.sharding.SnowflakeIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Durable record of what each reservation took, so a release can only hand back stock that was
+// actually reserved, once, from whichever instance it lands on.
+// Rows are written behind: ids come from memory and StockReservationEngine.flush() inserts them in batches.
+@Component
+public class StockReservationLedger {
+    private static final String INSERT_SQL = "INSERT INTO stock_reservation (id, product_id, user_id, quantity, created_at, released_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String FIND_SQL = "SELECT id, product_id, user_id, quantity, released_at IS NOT NULL FROM stock_reservation WHERE id = ?";
+    private static final String RELEASE_SQL = "UPDATE stock_reservation SET released_at = ? WHERE id = ? AND released_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SnowflakeIdGenerator ids;
+    // Not yet written, whoever removes an entry owns it: the flusher writes it as is, a release writes it released
+    private final Map<Long, StockReservation> pending = new ConcurrentHashMap<>();
+    private final Queue<StockReservation> releasedPending = new ConcurrentLinkedQueue<>();
+
+    public StockReservationLedger(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.sharding.worker-id:0}") int workerId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ids = new SnowflakeIdGenerator(workerId);
+    }
+
+    public StockReservation record(int productId, long userId, int quantity) {
+        StockReservation reservation = new StockReservation(ids.nextId(0), productId, userId, quantity, false);
+        pending.put(reservation.getId(), reservation);
+        return reservation;
+    }
+
+    public StockReservation findPending(long reservationId) {
+        return pending.get(reservationId);
+    }
+
+    // False when the flusher took it first, the release then goes through the written row
+    public boolean releasePending(StockReservation reservation) {
+        if (!pending.remove(reservation.getId(), reservation)) {
+            return false;
+        }
+        reservation.setReleased(true);
+        releasedPending.add(reservation);
+        return true;
+    }
+
+    // Everything recorded since the last flush, handed to the caller to write
+    List<StockReservation> drain() {
+        List<StockReservation> drained = new ArrayList<>();
+        for (StockReservation reservation : pending.values()) {
+            if (pending.remove(reservation.getId(), reservation)) {
+                drained.add(reservation);
+            }
+        }
+        StockReservation released;
+        while ((released = releasedPending.poll()) != null) {
+            drained.add(released);
+        }
+        return drained;
+    }
+
+    // The write failed, put them back for the next flush
+    void restore(List<StockReservation> reservations) {
+        for (StockReservation reservation : reservations) {
+            if (reservation.isReleased()) {
+                releasedPending.add(reservation);
+            } else {
+                pending.put(reservation.getId(), reservation);
+            }
+        }
+    }
+
+    void insert(List<StockReservation> reservations) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<>(reservations.size());
+        for (StockReservation r : reservations) {
+            args.add(new Object[]{r.getId(), r.getProductId(), r.getUserId(), r.getQuantity(), now, r.isReleased() ? now : null});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    public StockReservation find(long reservationId) {
+        List<StockReservation> rows = jdbcTemplate.query(FIND_SQL, (rs, i) -> new StockReservation(
+                rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getInt(4), rs.getBoolean(5)), reservationId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // The conditional update is the once-only gate, concurrent releases of one id see a single winner
+    boolean markReleased(long reservationId) {
+        return jdbcTemplate.update(RELEASE_SQL, new Timestamp(System.currentTimeMillis()), reservationId) > 0;
+    }
+}
@@ -24,6 +24,8 @@ public abstract class ErrorType {
     }
 
 
+    // Errors that never vary expose a shared INSTANCE instead of a public constructor
+
     // Input Validation Errors
     public static class ValidationError extends ErrorType {
         public ValidationError(String fieldName, String message) {
@@ -32,7 +34,9 @@ public abstract class ErrorType {
     }
 
     public static class InvalidEmailError extends ErrorType {
-        public InvalidEmailError() {
+        public static final InvalidEmailError INSTANCE = new InvalidEmailError();
+
+        private InvalidEmailError() {
             super(HttpStatus.BAD_REQUEST, "Invalid email format");
         }
     }
@@ -52,32 +56,42 @@ public abstract class ErrorType {
 
     // Authentication Errors
     public static class InvalidCredentialsError extends ErrorType {
-        public InvalidCredentialsError() {
+        public static final InvalidCredentialsError INSTANCE = new InvalidCredentialsError();
+
+        private InvalidCredentialsError() {
             super(HttpStatus.UNAUTHORIZED, "Invalid email or password");
         }
     }
 
     public static class UnauthenticatedError extends ErrorType {
-        public UnauthenticatedError() {
+        public static final UnauthenticatedError INSTANCE = new UnauthenticatedError();
+
+        private UnauthenticatedError() {
             super(HttpStatus.UNAUTHORIZED, "Authentication required");
         }
     }
 
     public static class TokenExpiredError extends ErrorType {
-        public TokenExpiredError() {
+        public static final TokenExpiredError INSTANCE = new TokenExpiredError();
+
+        private TokenExpiredError() {
             super(HttpStatus.UNAUTHORIZED, "Token has expired");
         }
     }
 
     public static class InvalidTokenError extends ErrorType {
-        public InvalidTokenError() {
+        public static final InvalidTokenError INSTANCE = new InvalidTokenError();
+
+        private InvalidTokenError() {
             super(HttpStatus.UNAUTHORIZED, "Invalid or malformed token");
         }
     }
 
 
     public static class RefreshTokenMismatchError extends ErrorType {
-        public RefreshTokenMismatchError() {
+        public static final RefreshTokenMismatchError INSTANCE = new RefreshTokenMismatchError();
+
+        private RefreshTokenMismatchError() {
             super(HttpStatus.UNAUTHORIZED, "Refresh token does not match");
         }
     }
@@ -104,7 +118,9 @@ public abstract class ErrorType {
     }
 
     public static class DuplicateEmailError extends ErrorType {
-        public DuplicateEmailError() {
+        public static final DuplicateEmailError INSTANCE = new DuplicateEmailError();
+
+        private DuplicateEmailError() {
             super(HttpStatus.CONFLICT, "Email already exists");
         }
     }
@@ -118,7 +134,9 @@ public abstract class ErrorType {
     }
 
     public static class AccessDeniedError extends ErrorType {
-        public AccessDeniedError() {
+        public static final AccessDeniedError INSTANCE = new AccessDeniedError();
+
+        private AccessDeniedError() {
             super(HttpStatus.FORBIDDEN, "Access denied");
         }
     }
@@ -1,8 +1,13 @@
 package com.priteshchittrode.user_crud.response;
 
+import java.util.function.Function;
+
 public abstract class Result<T> {
     private Result() {}
 
+    // Shared unit success, Success carries no state besides its value so one instance is enough
+    private static final Success<?> UNIT = new Success<>(null);
+
     public static final class Success<T> extends Result<T> {
         public final T value;
 
@@ -31,6 +36,21 @@ public abstract class Result<T> {
     }
 
 
+    // Factory methods
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> success() {
+        return (Result<T>) UNIT;
+    }
+
+    public static <T> Result<T> success(T value) {
+        return value == null ? success() : new Success<>(value);
+    }
+
+    public static <T> Result<T> error(ErrorType errorType) {
+        return new Error<>(errorType);
+    }
+
+
     // Helper methods
     public boolean isSuccess() {
         return this instanceof Success;
@@ -40,12 +60,41 @@ public abstract class Result<T> {
         return this instanceof Error;
     }
 
+    @SuppressWarnings("unchecked")
     public T getValueOrNull() {
         return this instanceof Success ? ((Success<T>) this).value : null;
     }
 
+    @SuppressWarnings("unchecked")
     public ErrorType getErrorOrNull() {
         return this instanceof Error ? ((Error<T>) this).errorType : null;
     }
 
-}
\ No newline at end of file
+    // Re-types an Error without allocating, an Error never holds a T so the cast is safe
+    @SuppressWarnings("unchecked")
+    public <U> Result<U> propagate() {
+        if (this instanceof Error) {
+            return (Result<U>) this;
+        }
+        throw new IllegalStateException("Cannot propagate a Success as an error: " + this);
+    }
+
+
+    // Combinators
+    @SuppressWarnings("unchecked")
+    public <U> Result<U> map(Function<? super T, ? extends U> mapper) {
+        if (this instanceof Success) {
+            return success(mapper.apply(((Success<T>) this).value));
+        }
+        return (Result<U>) this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> Result<U> flatMap(Function<? super T, Result<U>> mapper) {
+        if (this instanceof Success) {
+            return mapper.apply(((Success<T>) this).value);
+        }
+        return (Result<U>) this;
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.priteshchittrode.user_crud.security;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Times one hash at the minimum cost and extrapolates, each cost step doubles the work,
+// so calibrating costs a handful of cheap hashes instead of trying every cost
+@Slf4j
+final class BcryptCostCalibrator {
+    private static final String PROBE = "calibration-probe";
+
+    private BcryptCostCalibrator() {}
+
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(PROBE);
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(PROBE);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        double estimatedMillis = bestNanos / 1_000_000.0;
+        int cost = minCost;
+        while (cost < maxCost && estimatedMillis * 2 <= targetMillis) {
+            estimatedMillis *= 2;
+            cost++;
+        }
+        log.info("BCrypt cost {} selected, ~{} ms per hash (target {} ms)", cost, Math.round(estimatedMillis), targetMillis);
+        return cost;
+    }
+}
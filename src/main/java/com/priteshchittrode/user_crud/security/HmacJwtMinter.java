@@ -0,0 +1,131 @@
+package com.priteshchittrode.user_crud.security;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+// HS256 tokens with only sub, iat and exp, the same compact form the JJWT builder produces for these claims.
+// The header segment is encoded once, and each thread keeps its own keyed Mac and scratch buffers,
+// so minting a token allocates nothing but the returned String.
+final class HmacJwtMinter {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int MAX_PAYLOAD_LENGTH = 128;
+
+    private final byte[] headerSegment;
+    private final ThreadLocal<State> state;
+
+    private static final class State {
+        final Mac mac;
+        final byte[] payload = new byte[MAX_PAYLOAD_LENGTH];
+        final byte[] signature = new byte[SIGNATURE_LENGTH];
+        final byte[] token;
+
+        State(Mac mac, int headerLength) {
+            this.mac = mac;
+            this.token = new byte[headerLength + 1 + encodedLength(MAX_PAYLOAD_LENGTH) + 1 + encodedLength(SIGNATURE_LENGTH)];
+        }
+    }
+
+    HmacJwtMinter(byte[] keyBytes) {
+        this.headerSegment = Base64.getUrlEncoder().withoutPadding()
+                .encode("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.state = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return new State(mac, headerSegment.length);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HS256 is not available", e);
+            }
+        });
+    }
+
+    String mint(long userId, long issuedAtMillis, long expiresAtMillis) {
+        State s = state.get();
+        byte[] payload = s.payload;
+        int length = 0;
+        length = writeAscii(payload, length, "{\"sub\":\"");
+        length = writeLong(payload, length, userId);
+        length = writeAscii(payload, length, "\",\"iat\":");
+        length = writeLong(payload, length, issuedAtMillis / 1000);
+        length = writeAscii(payload, length, ",\"exp\":");
+        length = writeLong(payload, length, expiresAtMillis / 1000);
+        payload[length++] = '}';
+
+        byte[] token = s.token;
+        System.arraycopy(headerSegment, 0, token, 0, headerSegment.length);
+        int position = headerSegment.length;
+        token[position++] = '.';
+        position = encode(payload, length, token, position);
+
+        try {
+            s.mac.update(token, 0, position);
+            s.mac.doFinal(s.signature, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        token[position++] = '.';
+        position = encode(s.signature, SIGNATURE_LENGTH, token, position);
+        return new String(token, 0, position, StandardCharsets.US_ASCII);
+    }
+
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    // Unpadded base64url, as JWS requires
+    private static int encode(byte[] source, int length, byte[] target, int position) {
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8 | (source[i + 2] & 0xff);
+            target[position++] = BASE64_URL[bits >>> 18];
+            target[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            target[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            target[position++] = BASE64_URL[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (source[i] & 0xff) << 16;
+            target[position++] = BASE64_URL[bits >>> 18];
+            target[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8;
+            target[position++] = BASE64_URL[bits >>> 18];
+            target[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            target[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+        }
+        return position;
+    }
+
+    private static int writeAscii(byte[] target, int position, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            target[position++] = (byte) text.charAt(i);
+        }
+        return position;
+    }
+
+    private static int writeLong(byte[] target, int position, long value) {
+        if (value < 0) {
+            target[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            target[position++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        // Digits went in backwards
+        for (int left = start, right = position - 1; left < right; left++, right--) {
+            byte digit = target[left];
+            target[left] = target[right];
+            target[right] = digit;
+        }
+        return position;
+    }
+}
@@ -1,6 +1,12 @@
 package com.priteshchittrode.user_crud.security;
+import com.priteshchittrode.user_crud.presence.LastSeenTracker;
+import com.priteshchittrode.user_crud.timing.RequestTiming;
+import com.priteshchittrode.user_crud.timing.TimingPhase;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -11,6 +17,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
@@ -21,6 +30,25 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private PublicEndpoints publicEndpoints;
 
+    @Autowired
+    private LastSeenTracker lastSeenTracker;
+
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES = Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    // Users allowed on /api/admin/**, nobody by default
+    private Set<Long> adminUserIds = Collections.emptySet();
+
+    @Value("${app.admin.user-ids:}")
+    void setAdminUserIds(String userIds) {
+        Set<Long> ids = new HashSet<>();
+        for (String id : userIds.split(",")) {
+            if (!id.trim().isEmpty()) {
+                ids.add(Long.parseLong(id.trim()));
+            }
+        }
+        this.adminUserIds = ids;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
         String requestUri = request.getRequestURI();
@@ -29,32 +57,43 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        String header = request.getHeader("Authorization");
-        if (header == null || !header.startsWith("Bearer ")) {
-            sendError(response, "Missing token");
-            return;
-        }
-
-        String token = header.substring(7);
-        if (jwtUtil.isTokenExpired(token)) {
-            sendError(response, "Token expired or invalid");
-            return;
-        }
-
+        // Token parsing shows up as the auth phase when the request is timed
+        RequestTiming timing = RequestTiming.current();
+        long timingStart = timing != null ? timing.enter() : 0;
         Long userId;
         try {
-            userId = jwtUtil.extractUserId(token);
-        } catch (Exception e) {
-            sendError(response, "Invalid token");
-            return;
+            String header = request.getHeader("Authorization");
+            if (header == null || !header.startsWith("Bearer ")) {
+                sendError(response, "Missing token");
+                return;
+            }
+
+            String token = header.substring(7);
+            if (jwtUtil.isTokenExpired(token)) {
+                sendError(response, "Token expired or invalid");
+                return;
+            }
+
+            try {
+                userId = jwtUtil.extractUserId(token);
+            } catch (Exception e) {
+                sendError(response, "Invalid token");
+                return;
+            }
+        } finally {
+            if (timing != null) {
+                timing.exit(TimingPhase.AUTH, timingStart);
+            }
         }
 
         // Set userId in request attribute
         request.setAttribute("userId", userId);
+        lastSeenTracker.touch(userId);
 
         if (SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+                    new UsernamePasswordAuthenticationToken(userId, null,
+                            adminUserIds.contains(userId) ? ADMIN_AUTHORITIES : Collections.emptyList());
 
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -1,6 +1,7 @@
 package com.priteshchittrode.user_crud.security;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
@@ -13,24 +14,19 @@ public class JwtUtil {
     private final long ACCESS_EXPIRATION = 1000 * 60 * 15; // 15 min
     private final long REFRESH_EXPIRATION = 1000 * 60 * 60 * 24 * 7; // 7 days
 
+    // JJWT treats a String key as base64, decoded the same way here so the parser below verifies minted tokens
+    private final HmacJwtMinter minter = new HmacJwtMinter(TextCodec.BASE64.decode(SECRET_KEY));
+
     // 🔐 ACCESS TOKEN
     public String generateAccessToken(Long userId) {
-        return Jwts.builder()
-                .setSubject(String.valueOf(userId))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_EXPIRATION))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
-                .compact();
+        long now = System.currentTimeMillis();
+        return minter.mint(userId, now, now + ACCESS_EXPIRATION);
     }
 
     // 🔁 REFRESH TOKEN
     public String generateRefreshToken(Long userId) {
-        return Jwts.builder()
-                .setSubject(String.valueOf(userId))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_EXPIRATION))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
-                .compact();
+        long now = System.currentTimeMillis();
+        return minter.mint(userId, now, now + REFRESH_EXPIRATION);
     }
 
     // 🆔 Extract USER ID
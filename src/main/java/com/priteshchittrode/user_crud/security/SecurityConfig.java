@@ -1,6 +1,7 @@
 package com.priteshchittrode.user_crud.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,8 +9,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -38,6 +43,10 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                         "/api/auth/sign-in",
                         "/api/auth/refresh-token/**"
                 ).permitAll()
+                // Traces, limiter state and user statistics, only for app.admin.user-ids
+                .antMatchers("/api/admin/**").hasRole("ADMIN")
+                // Bulk price and stock rewrites, stock otherwise only comes back through the reservation ledger
+                .antMatchers("/api/product/bulk/**").hasRole("ADMIN")
                 .anyRequest().authenticated();
 
         // ✅ JWT filter
@@ -45,8 +54,22 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     // ✅ Password encoder
+    // New hashes carry an {id} prefix, BCrypt cost is calibrated to the target latency unless pinned with bcrypt-cost.
+    // Unprefixed hashes from before are plain BCrypt, they still match and get upgraded on the next sign-in.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${app.password.bcrypt-cost:0}") int bcryptCost,
+                                           @Value("${app.password.target-latency:250}") long targetLatencyMillis,
+                                           @Value("${app.password.min-cost:10}") int minCost,
+                                           @Value("${app.password.max-cost:16}") int maxCost) {
+        int cost = bcryptCost > 0 ? bcryptCost : BcryptCostCalibrator.calibrate(targetLatencyMillis, minCost, maxCost);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder());
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 }
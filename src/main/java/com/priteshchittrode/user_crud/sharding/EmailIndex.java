@@ -0,0 +1,48 @@
+package com.priteshchittrode.user_crud.sharding;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.List;
+
+public class EmailIndex {
+    private final ShardRoutingDataSource shards;
+    private final JdbcTemplate index;
+
+    public EmailIndex(ShardRoutingDataSource shards) {
+        this.shards = shards;
+        this.index = new JdbcTemplate(shards.getShard(0));
+    }
+
+    public Long find(String email) {
+        List<Long> ids = index.queryForList("SELECT user_id FROM user_email_index WHERE email = ?", Long.class, email);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Points email at userId, entries left behind by email changes or deletes are taken over
+    public void claim(String email, long userId) {
+        Long owner = find(email);
+        if (owner == null) {
+            index.update("INSERT INTO user_email_index (email, user_id) VALUES (?, ?)", email, userId);
+            return;
+        }
+        if (owner == userId) {
+            return;
+        }
+        if (ownerStillHasEmail(owner, email)) {
+            throw new DuplicateKeyException("Email already exists");
+        }
+        int updated = index.update("UPDATE user_email_index SET user_id = ? WHERE email = ? AND user_id = ?", userId, email, owner);
+        if (updated == 0) {
+            throw new DuplicateKeyException("Email was claimed concurrently");
+        }
+    }
+
+    public void release(String email, long userId) {
+        index.update("DELETE FROM user_email_index WHERE email = ? AND user_id = ?", email, userId);
+    }
+
+    private boolean ownerStillHasEmail(long owner, String email) {
+        JdbcTemplate shard = new JdbcTemplate(shards.getShard(SnowflakeIdGenerator.shardOf(owner)));
+        Integer count = shard.queryForObject("SELECT COUNT(*) FROM users WHERE id = ? AND email = ?", Integer.class, owner, email);
+        return count != null && count > 0;
+    }
+}
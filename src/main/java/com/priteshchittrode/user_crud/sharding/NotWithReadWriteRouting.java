@@ -0,0 +1,18 @@
+package com.priteshchittrode.user_crud.sharding;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+// Sharding and read/write splitting each replace the primary DataSource and do not compose (replicas are not
+// per shard). Fails while configuration classes are parsed, before the two dataSource beans collide.
+class NotWithReadWriteRouting implements Condition {
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        if (context.getEnvironment().getProperty("app.datasource.routing-enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.sharding.enabled and app.datasource.routing-enabled cannot both be true, "
+                    + "enable one of them");
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.priteshchittrode.user_crud.sharding;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Thread bound shard selection, read by ShardRoutingDataSource when a connection is fetched
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+    private static final ThreadLocal<Long> PENDING_ID = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer get() {
+        return SHARD.get();
+    }
+
+    public static int currentShard() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(shard);
+        }
+    }
+
+    // Id reserved before an insert, so the email index and the shard are known before the row exists
+    public static void setPendingId(Long id) {
+        if (id == null) {
+            PENDING_ID.remove();
+        } else {
+            PENDING_ID.set(id);
+        }
+    }
+
+    public static Long takePendingId() {
+        Long id = PENDING_ID.get();
+        PENDING_ID.remove();
+        return id;
+    }
+
+    // A transaction keeps the connection of its first statement, later statements reach that shard whatever
+    // the context says. Kept as a synchronization so it is suspended and cleared together with the transaction.
+    private static final class TransactionShard implements TransactionSynchronization {
+        final int shard;
+
+        TransactionShard(int shard) {
+            this.shard = shard;
+        }
+    }
+
+    static void bindTransactionShard(int shard) {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && transactionShard() == null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionShard(shard));
+        }
+    }
+
+    // Shard the current transaction is bound to, null outside a transaction or before its first statement
+    public static Integer transactionShard() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionShard) {
+                return ((TransactionShard) synchronization).shard;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.priteshchittrode.user_crud.sharding;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = shards;
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public HikariDataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    // Only called when a physical connection is fetched, inside a transaction that is the one it keeps
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardContext.currentShard();
+        ShardContext.bindTransactionShard(shard);
+        return shard;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
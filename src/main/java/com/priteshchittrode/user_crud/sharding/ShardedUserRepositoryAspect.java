@@ -0,0 +1,207 @@
+package com.priteshchittrode.user_crud.sharding;
+import com.priteshchittrode.user_crud.user.User;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+// Sits in front of the UserRepository proxy and picks the shard before the repository opens its transaction.
+// A single outer transaction stays on the shard of its first statement, so cross-shard work must not share one.
+@Aspect
+public class ShardedUserRepositoryAspect {
+    private final int shardCount;
+    private final EmailIndex emailIndex;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedUserRepositoryAspect(int shardCount, EmailIndex emailIndex, SnowflakeIdGenerator idGenerator, ExecutorService scatterExecutor) {
+        this.shardCount = shardCount;
+        this.emailIndex = emailIndex;
+        this.idGenerator = idGenerator;
+        this.scatterExecutor = scatterExecutor;
+    }
+
+    @Around("target(com.priteshchittrode.user_crud.user.UserRepository)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        switch (joinPoint.getSignature().getName()) {
+            case "save":
+            case "saveAndFlush":
+                return save(joinPoint, (User) args[0]);
+            case "findById":
+            case "existsById":
+            case "deleteById":
+                return onShard(shardOf((Long) args[0]), joinPoint, args);
+            case "softDeleteById":
+                return onShard(shardOf((Long) args[0]), joinPoint, args);
+            case "purgeDeleted":
+                int purged = 0;
+                for (Object count : scatter(joinPoint, sameArgsOnEveryShard(args))) {
+                    purged += (Integer) count;
+                }
+                return purged;
+            case "delete":
+                return onShard(shardOf(((User) args[0]).getId()), joinPoint, args);
+            case "findByEmail":
+                return findByEmail(joinPoint, (String) args[0]);
+            case "findAll":
+                return findAll(joinPoint);
+            case "findAllById":
+                return findAllById(joinPoint, (Iterable<?>) args[0]);
+            case "count":
+                long total = 0;
+                for (Object count : scatter(joinPoint, sameArgsOnEveryShard(args))) {
+                    total += (Long) count;
+                }
+                return total;
+            default:
+                if (joinPoint.getSignature().getDeclaringType() == Object.class) {
+                    return joinPoint.proceed();
+                }
+                break;
+        }
+        // UserRepository only declares routed methods, reaching this means a new one was added without a case
+        throw new IllegalStateException("UserRepository." + joinPoint.getSignature().getName() + " has no shard routing");
+    }
+
+
+    // Routing
+    private Object save(ProceedingJoinPoint joinPoint, User user) throws Throwable {
+        if (user.getId() != null) {
+            emailIndex.claim(user.getEmail(), user.getId());
+            return onShard(shardOf(user.getId()), joinPoint, joinPoint.getArgs());
+        }
+
+        // Placed by email hash, unless the transaction already sits on a shard: the insert can only go there,
+        // and the id has to say so. Lookups go through the email index, so placement is free to choose.
+        Integer bound = ShardContext.transactionShard();
+        int shard = bound != null ? bound : Math.floorMod(user.getEmail().hashCode(), shardCount);
+        long id = idGenerator.nextId(shard);
+        emailIndex.claim(user.getEmail(), id);
+        ShardContext.setPendingId(id);
+        try {
+            return onShard(shard, joinPoint, joinPoint.getArgs());
+        } catch (Throwable e) {
+            emailIndex.release(user.getEmail(), id);
+            throw e;
+        } finally {
+            ShardContext.setPendingId(null);
+        }
+    }
+
+    private Object findByEmail(ProceedingJoinPoint joinPoint, String email) throws Throwable {
+        Long id = emailIndex.find(email);
+        if (id == null) {
+            return Optional.empty();
+        }
+        Optional<?> user = (Optional<?>) onShard(shardOf(id), joinPoint, joinPoint.getArgs());
+        if (user.isEmpty()) {
+            // Entry outlived its user or its email, drop it so the next lookup is a plain miss
+            emailIndex.release(email, id);
+        }
+        return user;
+    }
+
+    private List<User> findAll(ProceedingJoinPoint joinPoint) throws Throwable {
+        return mergeById(scatter(joinPoint, sameArgsOnEveryShard(joinPoint.getArgs())));
+    }
+
+    private List<User> findAllById(ProceedingJoinPoint joinPoint, Iterable<?> ids) throws Throwable {
+        List<List<Long>> idsByShard = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        for (Object id : ids) {
+            idsByShard.get(shardOf((Long) id)).add((Long) id);
+        }
+
+        Object[][] argsByShard = new Object[shardCount][];
+        for (int i = 0; i < shardCount; i++) {
+            if (!idsByShard.get(i).isEmpty()) {
+                argsByShard[i] = new Object[]{idsByShard.get(i)};
+            }
+        }
+        return mergeById(scatter(joinPoint, argsByShard));
+    }
+
+
+    // Helpers
+    private int shardOf(Long id) {
+        int shard = SnowflakeIdGenerator.shardOf(id);
+        if (shard >= shardCount) {
+            throw new IllegalStateException("User id " + id + " belongs to unknown shard " + shard);
+        }
+        return shard;
+    }
+
+    private Object onShard(int shard, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        Integer bound = ShardContext.transactionShard();
+        if (bound != null && bound != shard) {
+            // The call would silently run on the bound shard and read or write the wrong rows
+            throw new IllegalStateException("Transaction is bound to shard " + bound + ", "
+                    + joinPoint.getSignature().getName() + " needs shard " + shard);
+        }
+        Integer previous = ShardContext.get();
+        ShardContext.set(shard);
+        try {
+            return joinPoint.proceed(args);
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private Object[][] sameArgsOnEveryShard(Object[] args) {
+        Object[][] argsByShard = new Object[shardCount][];
+        for (int i = 0; i < shardCount; i++) {
+            argsByShard[i] = args;
+        }
+        return argsByShard;
+    }
+
+    // Runs the call on every shard with non-null args in parallel, each on its own connection
+    private List<Object> scatter(ProceedingJoinPoint joinPoint, Object[][] argsByShard) throws Throwable {
+        List<Future<Object>> futures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (argsByShard[i] == null) {
+                continue;
+            }
+            int shard = i;
+            futures.add(scatterExecutor.submit(() -> {
+                try {
+                    return onShard(shard, joinPoint, argsByShard[shard]);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        List<Object> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<Object> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> mergeById(List<Object> results) {
+        List<User> users = new ArrayList<>();
+        for (Object result : results) {
+            users.addAll((List<User>) result);
+        }
+        // Ids are time ordered, so this keeps insertion order like the old single table
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+}
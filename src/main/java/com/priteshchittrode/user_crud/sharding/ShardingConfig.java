@@ -0,0 +1,114 @@
+package com.priteshchittrode.user_crud.sharding;
+import com.priteshchittrode.user_crud.outbox.OutboxEvent;
+import com.priteshchittrode.user_crud.presence.Presence;
+import com.priteshchittrode.user_crud.user.User;
+import com.priteshchittrode.user_crud.user.UserLookup;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+    @Conditional(NotWithReadWriteRouting.class)
+    static class ShardedUsersConfig {
+
+        // Unsharded deployments keep AUTO_INCREMENT ids, see UserIdGenerator
+        @Bean
+        public SnowflakeIdGenerator snowflakeIdGenerator(ShardingProperties properties) {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(properties.getWorkerId());
+            SnowflakeIdGenerator.setShared(generator);
+            return generator;
+        }
+
+        @Bean
+        public Jackson2ObjectMapperBuilderCustomizer stringUserIdsCustomizer() {
+            return builder -> builder
+                    .mixIn(User.class, StringUserIds.class)
+                    .mixIn(UserLookup.class, StringUserIds.class)
+                    .mixIn(Presence.class, StringUserIds.class)
+                    .mixIn(OutboxEvent.class, StringUserIds.class);
+        }
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+            List<HikariConfig> configs = properties.getShards();
+            if (configs.isEmpty() || configs.size() > SnowflakeIdGenerator.MAX_SHARDS) {
+                throw new IllegalStateException("app.sharding.shards must list between 1 and "
+                        + SnowflakeIdGenerator.MAX_SHARDS + " shards");
+            }
+            List<HikariDataSource> shards = new ArrayList<>();
+            for (int i = 0; i < configs.size(); i++) {
+                HikariConfig config = configs.get(i);
+                if (config.getPoolName() == null) {
+                    config.setPoolName("shard-" + i);
+                }
+                HikariDataSource dataSource = new HikariDataSource();
+                config.copyStateTo(dataSource);
+                shards.add(dataSource);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        // Connections are fetched on the first statement, after the aspect has picked the shard
+        // The generator is registered before any repository can insert a user
+        @Bean
+        @Primary
+        @DependsOn("snowflakeIdGenerator")
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        // Flyway only sees the primary DataSource, every shard needs the same schema
+        @Bean
+        public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+            return flyway -> {
+                for (int i = 0; i < shardRoutingDataSource.getShardCount(); i++) {
+                    Flyway.configure()
+                            .configuration(flyway.getConfiguration())
+                            .dataSource(shardRoutingDataSource.getShard(i))
+                            .load()
+                            .migrate();
+                }
+            };
+        }
+
+        @Bean
+        public EmailIndex emailIndex(ShardRoutingDataSource shardRoutingDataSource) {
+            return new EmailIndex(shardRoutingDataSource);
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        public ExecutorService shardScatterExecutor(ShardRoutingDataSource shardRoutingDataSource) {
+            return Executors.newFixedThreadPool(shardRoutingDataSource.getShardCount(), runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Bean
+        public ShardedUserRepositoryAspect shardedUserRepositoryAspect(ShardRoutingDataSource shardRoutingDataSource, EmailIndex emailIndex,
+                                                                       SnowflakeIdGenerator snowflakeIdGenerator, ExecutorService shardScatterExecutor) {
+            return new ShardedUserRepositoryAspect(shardRoutingDataSource.getShardCount(), emailIndex, snowflakeIdGenerator, shardScatterExecutor);
+        }
+    }
+}
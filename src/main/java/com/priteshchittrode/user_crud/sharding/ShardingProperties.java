@@ -0,0 +1,19 @@
+package com.priteshchittrode.user_crud.sharding;
+import com.zaxxer.hikari.HikariConfig;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Must be unique per running instance, ids from two instances with the same worker id can collide
+    private int workerId = 0;
+
+    // One Hikari pool per shard, shard 0 also holds the global email index
+    private List<HikariConfig> shards = new ArrayList<>();
+}
@@ -0,0 +1,69 @@
+package com.priteshchittrode.user_crud.sharding;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 64-bit ids laid out as | 41 bits millis since EPOCH | 5 bits shard | 5 bits worker | 12 bits sequence |
+// so every id carries the shard that owns its row and ids stay roughly time ordered
+public class SnowflakeIdGenerator {
+    public static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 5;
+    private static final int SHARD_BITS = 5;
+    private static final int WORKER_SHIFT = SEQUENCE_BITS;
+    private static final int SHARD_SHIFT = SEQUENCE_BITS + WORKER_BITS;
+    private static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_BITS + SHARD_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long LEGACY_ID_LIMIT = 1L << 40;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_WORKERS = 1 << WORKER_BITS;
+
+    // Hibernate instantiates id generators itself, so they reach the configured instance through here.
+    // Only set when sharding is enabled, null otherwise.
+    private static volatile SnowflakeIdGenerator shared;
+
+    private final long workerId;
+    // (timestamp << SEQUENCE_BITS) | sequence, advanced with CAS
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int workerId) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("workerId must be between 0 and " + (MAX_WORKERS - 1));
+        }
+        this.workerId = workerId;
+    }
+
+    public static SnowflakeIdGenerator shared() {
+        return shared;
+    }
+
+    public static void setShared(SnowflakeIdGenerator generator) {
+        shared = generator;
+    }
+
+    public long nextId(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            // Same millisecond or clock stepped back: keep counting, a full sequence rolls into the next millisecond
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT)
+                        | ((long) shard << SHARD_SHIFT)
+                        | (workerId << WORKER_SHIFT)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Ids handed out by the old AUTO_INCREMENT column are far below any generated id and map to shard 0
+    public static int shardOf(long id) {
+        if (id < LEGACY_ID_LIMIT) {
+            return 0;
+        }
+        return (int) ((id >>> SHARD_SHIFT) & (MAX_SHARDS - 1));
+    }
+}
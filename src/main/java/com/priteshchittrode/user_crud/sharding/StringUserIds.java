@@ -0,0 +1,13 @@
+package com.priteshchittrode.user_crud.sharding;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+// Jackson mix-in for classes carrying user ids. Snowflake ids are past 2^53, so with sharding enabled they
+// are written as JSON strings that JavaScript clients cannot round. Fields a class lacks are ignored.
+abstract class StringUserIds {
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long userId;
+}
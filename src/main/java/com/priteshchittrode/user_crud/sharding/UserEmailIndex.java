@@ -0,0 +1,24 @@
+package com.priteshchittrode.user_crud.sharding;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// Global email -> user id directory, lives on shard 0
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_email_index")
+public class UserEmailIndex {
+
+    @Id
+    private String email;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
@@ -0,0 +1,22 @@
+package com.priteshchittrode.user_crud.sharding;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentityGenerator;
+import java.io.Serializable;
+
+// Snowflake ids when sharding is enabled, the column's AUTO_INCREMENT otherwise. Returning an id makes
+// Hibernate insert it, the post-insert indicator from IdentityGenerator leaves it to the database.
+public class UserIdGenerator extends IdentityGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Long pendingId = ShardContext.takePendingId();
+        if (pendingId != null) {
+            return pendingId;
+        }
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.shared();
+        if (generator == null) {
+            return super.generate(session, object);
+        }
+        return generator.nextId(ShardContext.currentShard());
+    }
+}
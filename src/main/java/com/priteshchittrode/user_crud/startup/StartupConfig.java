@@ -0,0 +1,19 @@
+package com.priteshchittrode.user_crud.startup;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    // With spring.main.lazy-initialization a lazy bean's @Scheduled methods would never be registered,
+    // so background jobs are created eagerly and everything else waits for first use
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) method -> AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+}
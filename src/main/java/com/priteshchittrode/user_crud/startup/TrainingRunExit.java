@@ -0,0 +1,20 @@
+package com.priteshchittrode.user_crud.startup;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+// AppCDS training run (see the fast-startup profile): the archive is written when the JVM exits
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.startup", name = "training-run", havingValue = "true")
+public class TrainingRunExit implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("Training run finished, exiting to dump the class data archive");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.priteshchittrode.user_crud.timing;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-request accumulator, bound to the request thread only while the request is timed.
+// Phases nest (controller -> service -> repository), each phase is charged its own time minus its children.
+public final class RequestTiming {
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final TimingPhase[] PHASES = TimingPhase.values();
+    private static final int MAX_DEPTH = 32;
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] phaseCalls = new int[PHASES.length];
+    private final long[] childNanos = new long[MAX_DEPTH];
+    private int depth;
+
+    // Null when the current request is not timed, callers skip all work in that case
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static RequestTiming begin() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public long enter() {
+        depth++;
+        if (depth < MAX_DEPTH) {
+            childNanos[depth] = 0;
+        }
+        return System.nanoTime();
+    }
+
+    public void exit(TimingPhase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        long children = depth < MAX_DEPTH ? childNanos[depth] : 0;
+        depth--;
+        phaseNanos[phase.ordinal()] += elapsed - children;
+        phaseCalls[phase.ordinal()]++;
+        if (depth < MAX_DEPTH) {
+            childNanos[depth] += elapsed;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    // Whatever no phase claimed: servlet container, security chain, dispatching
+    long otherNanos(long totalNanos) {
+        return Math.max(0, totalNanos - childNanos[0]);
+    }
+
+    String toServerTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder(160);
+        for (TimingPhase phase : PHASES) {
+            if (phaseCalls[phase.ordinal()] > 0) {
+                appendMetric(header, phase.getMetricName(), phaseNanos[phase.ordinal()]);
+            }
+        }
+        appendMetric(header, "other", otherNanos(totalNanos));
+        appendMetric(header, "total", totalNanos);
+        return header.toString();
+    }
+
+    Map<String, Long> phaseMicros(long totalNanos) {
+        Map<String, Long> micros = new LinkedHashMap<>();
+        for (TimingPhase phase : PHASES) {
+            if (phaseCalls[phase.ordinal()] > 0) {
+                micros.put(phase.getMetricName(), phaseNanos[phase.ordinal()] / 1000);
+            }
+        }
+        micros.put("other", otherNanos(totalNanos) / 1000);
+        return micros;
+    }
+
+    // name;dur=<millis with 3 decimals>
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        long micros = nanos / 1000;
+        long fraction = micros % 1000;
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,57 @@
+package com.priteshchittrode.user_crud.timing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Untimed requests pass straight through, no context is bound so every probe is a single ThreadLocal miss.
+// The Server-Timing header needs the body held back until all phases, serialization included, are known.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestTimingFilter extends OncePerRequestFilter {
+    private final TraceBuffer traceBuffer;
+    private final double sampleRate;
+    private final boolean serverTimingHeader;
+
+    public RequestTimingFilter(TraceBuffer traceBuffer,
+                               @Value("${app.timing.sample-rate:0}") double sampleRate,
+                               @Value("${app.timing.server-timing-header:false}") boolean serverTimingHeader) {
+        this.traceBuffer = traceBuffer;
+        this.sampleRate = sampleRate;
+        this.serverTimingHeader = serverTimingHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (!sampled && !serverTimingHeader) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestTiming timing = RequestTiming.begin();
+        ContentCachingResponseWrapper cachedResponse = serverTimingHeader ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, cachedResponse != null ? cachedResponse : response);
+        } finally {
+            long totalNanos = timing.elapsedNanos();
+            RequestTiming.end();
+            if (cachedResponse != null) {
+                cachedResponse.setHeader("Server-Timing", timing.toServerTiming(totalNanos));
+                cachedResponse.copyBodyToResponse();
+            }
+            if (sampled) {
+                traceBuffer.add(new RequestTrace(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), totalNanos / 1000, timing.phaseMicros(totalNanos)));
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.priteshchittrode.user_crud.timing;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class RequestTrace {
+    private final long timestamp;
+    private final String method;
+    private final String uri;
+    private final int status;
+    private final long totalMicros;
+    private final Map<String, Long> phaseMicros;
+}
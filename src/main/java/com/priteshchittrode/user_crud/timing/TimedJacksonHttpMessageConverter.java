@@ -0,0 +1,29 @@
+package com.priteshchittrode.user_crud.timing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Replaces Boot's default JSON converter so response serialization shows up as its own phase
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = timing.enter();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timing.exit(TimingPhase.SERIALIZATION, start);
+        }
+    }
+}
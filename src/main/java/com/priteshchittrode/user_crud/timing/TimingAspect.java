@@ -0,0 +1,42 @@
+package com.priteshchittrode.user_crud.timing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Outermost advice, so service and repository time includes their transaction handling
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TimingAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, TimingPhase.CONTROLLER);
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, TimingPhase.SERVICE);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, TimingPhase.REPOSITORY);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, TimingPhase phase) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return joinPoint.proceed();
+        }
+        long start = timing.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timing.exit(phase, start);
+        }
+    }
+}
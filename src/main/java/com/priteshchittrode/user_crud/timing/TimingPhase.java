@@ -0,0 +1,20 @@
+package com.priteshchittrode.user_crud.timing;
+
+// Names double as Server-Timing metric names
+public enum TimingPhase {
+    AUTH("auth"),
+    CONTROLLER("controller"),
+    SERVICE("service"),
+    REPOSITORY("repository"),
+    SERIALIZATION("serialization");
+
+    private final String metricName;
+
+    TimingPhase(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,38 @@
+package com.priteshchittrode.user_crud.timing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Keeps the last N sampled traces, older ones are overwritten
+@Component
+public class TraceBuffer {
+    private final AtomicReferenceArray<RequestTrace> traces;
+    private final AtomicLong next = new AtomicLong();
+
+    public TraceBuffer(@Value("${app.timing.trace-capacity:1024}") int capacity) {
+        this.traces = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void add(RequestTrace trace) {
+        long sequence = next.getAndIncrement();
+        traces.set((int) (sequence % traces.length()), trace);
+    }
+
+    // Newest first
+    public List<RequestTrace> recent(int limit, long minMillis) {
+        long minMicros = minMillis * 1000;
+        long newest = next.get() - 1;
+        long oldest = Math.max(0, newest - traces.length() + 1);
+        List<RequestTrace> result = new ArrayList<>(Math.min(limit, traces.length()));
+        for (long sequence = newest; sequence >= oldest && result.size() < limit; sequence--) {
+            RequestTrace trace = traces.get((int) (sequence % traces.length()));
+            if (trace != null && trace.getTotalMicros() >= minMicros) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.priteshchittrode.user_crud.timing;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/admin/traces")
+@RequiredArgsConstructor
+public class TraceController {
+    private final TraceBuffer traceBuffer;
+
+
+    // Sampled request traces, newest first, optionally only those slower than minMillis
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<RequestTrace>>> getTraces(@RequestParam(defaultValue = "100") int limit,
+                                                                     @RequestParam(defaultValue = "0") long minMillis) {
+        List<RequestTrace> traces = traceBuffer.recent(Math.max(1, limit), minMillis);
+        return ResponseEntity.ok(ApiResponse.success(traces, "Traces fetched successfully"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.priteshchittrode.user_crud.user;
+import com.priteshchittrode.user_crud.concurrent.ScalableBloomFilter;
+import com.priteshchittrode.user_crud.sharding.ShardContext;
+import com.priteshchittrode.user_crud.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bloom filter of every email in users, soft deleted rows included since they still hold the unique key.
+// "No" is definite and lets sign-up skip the duplicate lookup, "maybe" falls through to the database.
+// Until the first scan finishes everything is a "maybe". Emails freed by an email change or a purge stay in
+// the filter as stale entries (a wasted lookup, never a wrong answer) until the next rebuild.
+@Slf4j
+@Component
+public class EmailFilter {
+    private static final String SCAN_SQL = "SELECT email FROM users WHERE email IS NOT NULL";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final int initialCapacity;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMillis;
+    private final double staleRebuildRatio;
+    // The scan can take minutes on a big table, it must not sit on a thread of the shared scheduler
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile ScalableBloomFilter filter;
+    // Set while a rebuild scans, so emails added meanwhile land in the new filter too
+    private volatile ScalableBloomFilter building;
+    private volatile long builtAt;
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder skippedLookups = new LongAdder();
+
+    public EmailFilter(DataSource dataSource, ObjectProvider<ShardRoutingDataSource> shards,
+                       @Value("${app.user.email-filter-initial-capacity:1000000}") int initialCapacity,
+                       @Value("${app.user.email-filter-false-positive-rate:0.01}") double falsePositiveRate,
+                       @Value("${app.user.email-filter-rebuild-interval:21600000}") long rebuildIntervalMillis,
+                       @Value("${app.user.email-filter-stale-ratio:0.1}") double staleRebuildRatio) {
+        // MySQL only streams rows one at a time with this fetch size, otherwise the whole column is buffered
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.shards = shards;
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+        this.staleRebuildRatio = staleRebuildRatio;
+    }
+
+    public boolean mightExist(String email) {
+        checks.increment();
+        ScalableBloomFilter current = filter;
+        if (current == null || current.mightContain(normalize(email))) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        String key = normalize(email);
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    // Emails no longer in use (changed or purged) still answer "maybe"
+    public void markStale(long count) {
+        stale.add(count);
+    }
+
+
+    // First build right after startup, then whenever the filter is old or too stale. The check only hands the
+    // scan to the rebuild thread, so the scheduler is free again right away.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.user.email-filter-check-interval:60000}")
+    public void rebuildIfNeeded() {
+        ScalableBloomFilter current = filter;
+        boolean due = current == null
+                || System.currentTimeMillis() - builtAt >= rebuildIntervalMillis
+                || stale.sum() > current.approximateSize() * staleRebuildRatio;
+        if (due && rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        ScalableBloomFilter next = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+        building = next;
+        long staleBefore = stale.sum();
+        try {
+            ShardRoutingDataSource shardRouting = shards.getIfAvailable();
+            int shardCount = shardRouting == null ? 1 : shardRouting.getShardCount();
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.set(shardRouting == null ? null : shard);
+                try {
+                    streamingJdbcTemplate.query(SCAN_SQL, row -> {
+                        next.put(normalize(row.getString(1)));
+                    });
+                } finally {
+                    ShardContext.set(null);
+                }
+            }
+            filter = next;
+            builtAt = System.currentTimeMillis();
+            stale.add(-staleBefore);
+            log.info("Email filter built: ~{} emails, {} KB, {} ms", next.approximateSize(), next.sizeInBytes() / 1024,
+                    builtAt - start);
+        } catch (Exception e) {
+            log.warn("Email filter build failed: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    // Matches the case insensitive collation of the email column
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Map<String, Long> getStats() {
+        ScalableBloomFilter current = filter;
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null ? 1L : 0L);
+        stats.put("entries", current != null ? current.approximateSize() : 0L);
+        stats.put("bytes", current != null ? current.sizeInBytes() : 0L);
+        stats.put("stale", stale.sum());
+        stats.put("checks", checks.sum());
+        stats.put("skippedLookups", skippedLookups.sum());
+        return stats;
+    }
+}
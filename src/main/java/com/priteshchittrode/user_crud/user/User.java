@@ -3,7 +3,9 @@ package com.priteshchittrode.user_crud.user;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -11,10 +13,15 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "users")
+// Soft deleted rows stay until UserPurgeJob removes them, entity reads never see them
+@Where(clause = "deleted_at IS NULL")
 public class User {
 
+    // AUTO_INCREMENT ids, or Snowflake style ids globally unique across shards when sharding is enabled
+    // (see sharding.SnowflakeIdGenerator)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "user-id")
+    @GenericGenerator(name = "user-id", strategy = "com.priteshchittrode.user_crud.sharding.UserIdGenerator")
     private Long id;
 
     // ✅ Basic Info
@@ -51,4 +58,22 @@ public class User {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Detached copy for responses, caches and events, so a managed instance is never stripped in place
+    public User withoutCredentials() {
+        User copy = new User();
+        copy.setId(id);
+        copy.setFirstName(firstName);
+        copy.setLastName(lastName);
+        copy.setEmail(email);
+        copy.setPhoneNumber(phoneNumber);
+        copy.setAddress(address);
+        copy.setCreatedAt(createdAt);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
 }
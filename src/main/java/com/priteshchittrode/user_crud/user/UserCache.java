@@ -0,0 +1,69 @@
+package com.priteshchittrode.user_crud.user;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bounded TTL cache of public profile data, never holds password or refresh token.
+// Local writes evict, changes made by other instances show up once the TTL runs out.
+@Component
+public class UserCache {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private static final class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public UserCache(@Value("${app.user.cache-ttl:30000}") long ttlMillis,
+                     @Value("${app.user.cache-max-entries:100000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public User get(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(id, entry);
+            return null;
+        }
+        return entry.user;
+    }
+
+    // Returns the cached copy
+    public User put(User user) {
+        if (entries.size() >= maxEntries) {
+            evictSome();
+        }
+        User copy = user.withoutCredentials();
+        entries.put(user.getId(), new Entry(copy, System.currentTimeMillis() + ttlMillis));
+        return copy;
+    }
+
+    public void evict(Long id) {
+        entries.remove(id);
+    }
+
+    // Drops expired entries, and if that frees nothing, an arbitrary tenth of the cache
+    private void evictSome() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+        int toDrop = maxEntries / 10;
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
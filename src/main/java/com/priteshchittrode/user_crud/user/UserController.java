@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 
 @RestController
@@ -48,6 +49,17 @@ public class UserController {
     }
 
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<UserLookup>>> getUsersByIds(@RequestBody Map<String, List<Long>> request) {
+        Result<List<UserLookup>> result = userService.getUsersByIds(request.get("ids"));
+        if (result.isSuccess()) {
+            return ResponseEntity.ok(ApiResponse.success(result.getValueOrNull(), "Users fetched successfully"));
+        } else {
+            return handleErrorResult(result.getErrorOrNull());
+        }
+    }
+
+
     @DeleteMapping("delete-user/{userId}")
     public ResponseEntity<ApiResponse<Void>> deleteUser(@PathVariable Long userId) {
         Result<Void> result = userService.deleteUser(userId);
@@ -69,6 +81,11 @@ public class UserController {
         }
     }
 
+    @GetMapping("/lookup-stats")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Long>>>> getLookupStats() {
+        return ResponseEntity.ok(ApiResponse.success(userService.getLookupStats(), "Lookup stats fetched successfully"));
+    }
+
     // Helper Methods
     private <T> ResponseEntity<ApiResponse<T>> handleErrorResult(ErrorType error) {
         return ResponseEntity.status(error.getHttpStatus()).body(ApiResponse.error(error.getMessage()));
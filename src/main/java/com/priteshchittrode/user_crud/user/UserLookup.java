@@ -0,0 +1,14 @@
+package com.priteshchittrode.user_crud.user;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a batch lookup, user is null when found is false
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserLookup {
+    private Long id;
+    private boolean found;
+    private User user;
+}
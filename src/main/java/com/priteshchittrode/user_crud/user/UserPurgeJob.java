@@ -0,0 +1,57 @@
+package com.priteshchittrode.user_crud.user;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Hard deletes soft deleted users in small batches with a pause in between, so mass cleanup
+// never holds long locks on the users table
+@Slf4j
+@Component
+public class UserPurgeJob {
+    private final UserRepository userRepository;
+    private final EmailFilter emailFilter;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMillis;
+
+    public UserPurgeJob(UserRepository userRepository, EmailFilter emailFilter,
+                        @Value("${app.user.purge-retention:1h}") Duration retention,
+                        @Value("${app.user.purge-batch-size:500}") int batchSize,
+                        @Value("${app.user.purge-max-batches:20}") int maxBatchesPerRun,
+                        @Value("${app.user.purge-pause:200}") long pauseMillis) {
+        this.userRepository = userRepository;
+        this.emailFilter = emailFilter;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.user.purge-interval:60000}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int purged = userRepository.purgeDeleted(cutoff, batchSize);
+                total += purged;
+                if (purged < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("User purge failed: {}", e.getMessage());
+        }
+        if (total > 0) {
+            emailFilter.markStale(total);
+            log.info("Purged {} soft deleted users", total);
+        }
+    }
+}
@@ -1,8 +1,45 @@
 package com.priteshchittrode.user_crud.user;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+// Only the operations sharding.ShardedUserRepositoryAspect can route, so anything else fails to compile
+// instead of at runtime. The CRUD methods are still implemented by Spring Data's SimpleJpaRepository.
+public interface UserRepository extends Repository<User, Long> {
+    <S extends User> S save(S user);
+
+    <S extends User> S saveAndFlush(S user);
+
+    Optional<User> findById(Long id);
+
+    boolean existsById(Long id);
+
+    List<User> findAll();
+
+    List<User> findAllById(Iterable<Long> ids);
+
+    long count();
+
+    void deleteById(Long id);
+
+    void delete(User user);
+
     Optional<User> findByEmail(String email);
-}
 
+    // Single UPDATE, no load first, 0 when the user is missing or already deleted
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.deletedAt = :deletedAt, u.refreshToken = NULL WHERE u.id = :id AND u.deletedAt IS NULL")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Bounded hard delete, walks the deleted_at index
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE deleted_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int purgeDeleted(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
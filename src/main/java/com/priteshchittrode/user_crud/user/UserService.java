@@ -1,26 +1,75 @@
 package com.priteshchittrode.user_crud.user;
+import com.priteshchittrode.user_crud.audit.AuditAction;
+import com.priteshchittrode.user_crud.audit.AuditLog;
+import com.priteshchittrode.user_crud.concurrent.SingleFlight;
+import com.priteshchittrode.user_crud.outbox.OutboxEventType;
+import com.priteshchittrode.user_crud.outbox.UserOutbox;
 import com.priteshchittrode.user_crud.response.ErrorType.*;
 import com.priteshchittrode.user_crud.response.Result;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final UserOutbox userOutbox;
+    private final AuditLog auditLog;
+    private final UserStats userStats;
+    private final EmailFilter emailFilter;
+
+    // Identical concurrent lookups share one query
+    private final SingleFlight<Long, User> profileLoads;
+    private final SingleFlight<String, User> emailLoads;
+
+    @Value("${app.user.batch-max-ids:100}")
+    private int batchMaxIds;
+
+    @Value("${app.user.batch-chunk-size:50}")
+    private int batchChunkSize;
+
+    // Constant errors, shared across requests
+    private static final ValidationError USER_ID_NOT_POSITIVE = new ValidationError("userId", "Must be a positive number");
+    private static final ValidationError USER_ID_NOT_NUMBER = new ValidationError("userId", "Must be a valid number");
+    private static final ValidationError USER_ID_REQUIRED = new ValidationError("userId", "Valid user ID is required");
+    private static final ResourceNotFoundError USER_NOT_FOUND = new ResourceNotFoundError("User");
+    private static final ResourceNotFoundError USERS_NOT_FOUND = new ResourceNotFoundError("Users");
+    private static final BadRequestError USER_DATA_REQUIRED = new BadRequestError("User data is required");
+    private static final FieldRequiredError EMAIL_REQUIRED = new FieldRequiredError("Email");
+    private static final FieldRequiredError IDS_REQUIRED = new FieldRequiredError("ids");
+    private static final ValidationError IDS_NOT_POSITIVE = new ValidationError("ids", "Every id must be a positive number");
+
+    public UserService(UserRepository userRepository, UserCache userCache, UserOutbox userOutbox, AuditLog auditLog, UserStats userStats, EmailFilter emailFilter,
+                       @Value("${app.user.single-flight-wait:2000}") long singleFlightWaitMillis) {
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.userOutbox = userOutbox;
+        this.auditLog = auditLog;
+        this.userStats = userStats;
+        this.emailFilter = emailFilter;
+        this.profileLoads = new SingleFlight<>(singleFlightWaitMillis);
+        this.emailLoads = new SingleFlight<>(singleFlightWaitMillis);
+    }
 
     // Validation Methods
     private Result<Long> validateUserId(String idString) {
         try {
             Long userId = Long.parseLong(idString);
             if (userId <= 0) {
-                return new Result.Error<>(new ValidationError("userId", "Must be a positive number"));
+                return Result.error(USER_ID_NOT_POSITIVE);
             }
-            return new Result.Success<>(userId);
+            return Result.success(userId);
         } catch (NumberFormatException e) {
-            return new Result.Error<>(new ValidationError("userId", "Must be a valid number"));
+            return Result.error(USER_ID_NOT_NUMBER);
         }
     }
 
@@ -28,64 +77,98 @@ public class UserService {
     private Result<User> validateUserExists(Long userId) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) {
-            return new Result.Error<>(new ResourceNotFoundError("User"));
+            return Result.error(USER_NOT_FOUND);
         }
-        return new Result.Success<>(user);
+        return Result.success(user);
     }
 
 
     private Result<Void> validateAuthorization(Long requestedUserId, Long currentUserId) {
         if (!requestedUserId.equals(currentUserId)) {
-            return new Result.Error<>(new AccessDeniedError());
+            return Result.error(AccessDeniedError.INSTANCE);
         }
-        return new Result.Success<>(null);
+        return Result.success();
     }
 
 
     private Result<Void> validateUpdateRequest(User updatedUser) {
         if (updatedUser == null) {
-            return new Result.Error<>(new BadRequestError("User data is required"));
+            return Result.error(USER_DATA_REQUIRED);
         }
         if (updatedUser.getId() == null || updatedUser.getId() <= 0) {
-            return new Result.Error<>(new ValidationError("userId", "Valid user ID is required"));
+            return Result.error(USER_ID_REQUIRED);
+        }
+        return Result.success();
+    }
+
+
+    private Result<Set<Long>> validateUserIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Result.error(IDS_REQUIRED);
+        }
+        // Dedupe, keeping first-seen order
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > batchMaxIds) {
+            return Result.error(new ValidationError("ids", "At most " + batchMaxIds + " distinct ids per request"));
         }
-        return new Result.Success<>(null);
+        for (Long id : distinct) {
+            if (id == null || id <= 0) {
+                return Result.error(IDS_NOT_POSITIVE);
+            }
+        }
+        return Result.success(distinct);
+    }
+
+
+    // The loaded user is handed to every coalesced caller, so it is sanitized once here and not touched after
+    private User loadProfile(Long userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null) {
+            user.setPassword(null); // Hide password
+        }
+        return user;
+    }
+
+
+    private User loadByEmail(String email) {
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user != null) {
+            user.setPassword(null); // Hide password
+        }
+        return user;
     }
 
 
     // User Operations
+    // No surrounding transaction: callers waiting on a coalesced load must not hold a connection
     public Result<User> getProfile(String idString) {
         try {
             // Validate ID format
             Result<Long> idValidation = validateUserId(idString);
             if (idValidation.isError()) {
-                return new Result.Error<>(idValidation.getErrorOrNull());
+                return idValidation.propagate();
             }
 
             Long userId = idValidation.getValueOrNull();
-
-            // Check if user exists
-            Result<User> userValidation = validateUserExists(userId);
-            if (userValidation.isError()) {
-                return new Result.Error<>(userValidation.getErrorOrNull());
+            User user = profileLoads.load(userId, () -> loadProfile(userId));
+            if (user == null) {
+                return Result.error(USER_NOT_FOUND);
             }
-
-            User user = userValidation.getValueOrNull();
-            user.setPassword(null); // Hide password
-            return new Result.Success<>(user);
+            return Result.success(user);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
     // Update Profile
+    @Transactional
     public Result<User> updateProfile(User updatedUser) {
         try {
             // Validate request
             Result<Void> requestValidation = validateUpdateRequest(updatedUser);
             if (requestValidation.isError()) {
-                return new Result.Error<>(requestValidation.getErrorOrNull());
+                return requestValidation.propagate();
             }
 
             Long userId = updatedUser.getId();
@@ -93,10 +176,11 @@ public class UserService {
             // Check if user exists
             Result<User> userValidation = validateUserExists(userId);
             if (userValidation.isError()) {
-                return new Result.Error<>(userValidation.getErrorOrNull());
+                return userValidation.propagate();
             }
 
             User existingUser = userValidation.getValueOrNull();
+            String previousEmail = existingUser.getEmail();
 
             // Update fields if provided
             if (updatedUser.getFirstName() != null && !updatedUser.getFirstName().trim().isEmpty()) {
@@ -117,47 +201,99 @@ public class UserService {
             existingUser.setUpdatedAt(LocalDateTime.now());
 
             // Save
-            User savedUser = userRepository.save(existingUser);
-            savedUser.setPassword(null); // hide password
+            User savedUser = userRepository.saveAndFlush(existingUser).withoutCredentials(); // hide password
+            userOutbox.record(OutboxEventType.USER_UPDATED, userId, savedUser);
+            auditLog.recordOnCommit(AuditAction.PROFILE_UPDATE, userId);
+            if (savedUser.getEmail() != null && !savedUser.getEmail().equalsIgnoreCase(previousEmail)) {
+                emailFilter.add(savedUser.getEmail());
+                emailFilter.markStale(1);
+            }
+            userCache.evict(userId);
 
-            return new Result.Success<>(savedUser);
+            return Result.success(savedUser);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
     // Get All Users
+    @Transactional(readOnly = true)
     public Result<List<User>> getAllUsers() {
         try {
             List<User> users = userRepository.findAll();
             if (users.isEmpty()) {
-                return new Result.Error<>(new ResourceNotFoundError("Users"));
+                return Result.error(USERS_NOT_FOUND);
             }
 
             // Hide passwords from all users
             users.forEach(user -> user.setPassword(null));
-            return new Result.Success<>(users);
+            return Result.success(users);
+        } catch (Exception e) {
+            return Result.error(new InternalServerError(e.getMessage()));
+        }
+    }
+
+
+    // Get Users by Ids, one entry per distinct id in request order
+    @Transactional(readOnly = true)
+    public Result<List<UserLookup>> getUsersByIds(List<Long> ids) {
+        try {
+            Result<Set<Long>> idsValidation = validateUserIds(ids);
+            if (idsValidation.isError()) {
+                return idsValidation.propagate();
+            }
+            Set<Long> distinct = idsValidation.getValueOrNull();
+
+            // Cache first
+            Map<Long, User> found = new HashMap<>();
+            List<Long> misses = new ArrayList<>();
+            for (Long id : distinct) {
+                User cached = userCache.get(id);
+                if (cached != null) {
+                    found.put(id, cached);
+                } else {
+                    misses.add(id);
+                }
+            }
+
+            // Misses in IN (...) chunks
+            for (int from = 0; from < misses.size(); from += batchChunkSize) {
+                List<Long> chunk = misses.subList(from, Math.min(from + batchChunkSize, misses.size()));
+                for (User user : userRepository.findAllById(chunk)) {
+                    found.put(user.getId(), userCache.put(user));
+                }
+            }
+
+            List<UserLookup> lookups = new ArrayList<>(distinct.size());
+            for (Long id : distinct) {
+                User user = found.get(id);
+                lookups.add(new UserLookup(id, user != null, user));
+            }
+            return Result.success(lookups);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
     // Delete User
+    @Transactional
     public Result<Void> deleteUser(Long userId) {
         try {
-            // Check if user exists
-            Result<User> userValidation = validateUserExists(userId);
-            if (userValidation.isError()) {
-                return new Result.Error<>(userValidation.getErrorOrNull());
+            // Soft delete in one statement, UserPurgeJob removes the row later
+            if (userRepository.softDeleteById(userId, LocalDateTime.now()) == 0) {
+                return Result.error(USER_NOT_FOUND);
             }
-
-            // Delete user
-            userRepository.deleteById(userId);
-            return new Result.Success<>(null);
+            userOutbox.record(OutboxEventType.USER_DELETED, userId, null);
+            auditLog.recordOnCommit(AuditAction.DELETE, userId);
+            userStats.onDelete();
+            userCache.evict(userId);
+            return Result.success();
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
@@ -166,18 +302,26 @@ public class UserService {
     public Result<User> getUserByEmail(String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
-                return new Result.Error<>(new FieldRequiredError("Email"));
+                return Result.error(EMAIL_REQUIRED);
             }
-            User user = userRepository.findByEmail(email).orElse(null);
+            User user = emailLoads.load(email, () -> loadByEmail(email));
             if (user == null) {
-                return new Result.Error<>(new ResourceNotFoundError("User with email: " + email));
+                return Result.error(new ResourceNotFoundError("User with email: " + email));
             }
-            user.setPassword(null); // Hide password
-            return new Result.Success<>(user);
+            return Result.success(user);
         } catch (Exception e) {
-            return new Result.Error<>(new InternalServerError(e.getMessage()));
+            return Result.error(new InternalServerError(e.getMessage()));
         }
     }
 
 
+    // Single-flight counters
+    public Map<String, Map<String, Long>> getLookupStats() {
+        Map<String, Map<String, Long>> stats = new HashMap<>();
+        stats.put("profile", profileLoads.getStats());
+        stats.put("email", emailLoads.getStats());
+        return stats;
+    }
+
+
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.priteshchittrode.user_crud.user;
+import com.priteshchittrode.user_crud.sharding.ShardContext;
+import com.priteshchittrode.user_crud.sharding.ShardRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// User counters kept in memory and moved by sign-up, sign-in, logout and delete as they happen.
+// One grouped query seeds them at startup and the same query periodically pulls them back in line
+// with the table (other instances, deletes of users with a session, rows purged).
+@Slf4j
+@Component
+public class UserStats {
+    // Per creation day: users signed up, still live, and live with a refresh token
+    private static final String AGGREGATE_SQL =
+            "SELECT DATE(created_at) AS day, COUNT(*) AS sign_ups, " +
+            "SUM(deleted_at IS NULL) AS live, SUM(deleted_at IS NULL AND refresh_token IS NOT NULL) AS active " +
+            "FROM users GROUP BY DATE(created_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardRoutingDataSource> shards;
+    private final int retainedDays;
+
+    private final LongAdder totalUsers = new LongAdder();
+    private final LongAdder activeSessions = new LongAdder();
+    private final Map<LocalDate, LongAdder> signUpsPerDay = new ConcurrentHashMap<>();
+
+    public UserStats(JdbcTemplate jdbcTemplate, ObjectProvider<ShardRoutingDataSource> shards,
+                     @Value("${app.user.stats-days:30}") int retainedDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.retainedDays = retainedDays;
+    }
+
+
+    // Events, applied once the surrounding transaction committed so a rollback leaves the counters alone
+    public void onSignUp() {
+        afterCommit(() -> {
+            totalUsers.increment();
+            activeSessions.increment();
+            signUpsPerDay.computeIfAbsent(LocalDate.now(), day -> new LongAdder()).increment();
+        });
+    }
+
+    // Only a user without a refresh token opens a new session, otherwise the token is replaced
+    public void onSignIn(boolean hadSession) {
+        if (!hadSession) {
+            afterCommit(activeSessions::increment);
+        }
+    }
+
+    public void onLogout() {
+        afterCommit(activeSessions::decrement);
+    }
+
+    // Whether the user had a session isn't known here, reconcile corrects activeSessions
+    public void onDelete() {
+        afterCommit(totalUsers::decrement);
+    }
+
+    // Without an active transaction the change is already durable, so it is counted right away
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+
+    // Seeding and reconciling
+    @PostConstruct
+    public void seed() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${app.user.stats-reconcile-interval:300000}",
+            fixedDelayString = "${app.user.stats-reconcile-interval:300000}")
+    public void reconcile() {
+        try {
+            // Read before querying, see below
+            long totalBefore = totalUsers.sum();
+            long activeBefore = activeSessions.sum();
+            Map<LocalDate, Long> perDayBefore = new HashMap<>();
+            signUpsPerDay.forEach((day, count) -> perDayBefore.put(day, count.sum()));
+
+            long total = 0;
+            long active = 0;
+            Map<LocalDate, Long> perDay = new HashMap<>();
+            ShardRoutingDataSource shardRouting = shards.getIfAvailable();
+            int shardCount = shardRouting == null ? 1 : shardRouting.getShardCount();
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.set(shardRouting == null ? null : shard);
+                try {
+                    for (Map<String, Object> row : jdbcTemplate.queryForList(AGGREGATE_SQL)) {
+                        total += ((Number) row.get("live")).longValue();
+                        active += ((Number) row.get("active")).longValue();
+                        Object day = row.get("day");
+                        if (day != null) {
+                            perDay.merge(((Date) day).toLocalDate(), ((Number) row.get("sign_ups")).longValue(), Long::sum);
+                        }
+                    }
+                } finally {
+                    ShardContext.set(null);
+                }
+            }
+            // Moved by the difference to the values read before the queries, so events applied while they ran
+            // are kept. One that committed after that read but before its shard's query started is counted
+            // twice until the next reconcile.
+            totalUsers.add(total - totalBefore);
+            activeSessions.add(active - activeBefore);
+            LocalDate oldest = LocalDate.now().minusDays(retainedDays - 1L);
+            signUpsPerDay.keySet().removeIf(day -> day.isBefore(oldest));
+            perDay.forEach((day, count) -> {
+                if (!day.isBefore(oldest)) {
+                    LongAdder adder = signUpsPerDay.computeIfAbsent(day, key -> new LongAdder());
+                    adder.add(count - perDayBefore.getOrDefault(day, 0L));
+                }
+            });
+        } catch (Exception e) {
+            log.warn("User stats reconcile failed: {}", e.getMessage());
+        }
+    }
+
+
+    public Map<String, Object> getStats() {
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        signUpsPerDay.forEach((day, count) -> perDay.put(day, count.sum()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", totalUsers.sum());
+        stats.put("activeSessions", activeSessions.sum());
+        stats.put("signUpsPerDay", perDay);
+        return stats;
+    }
+}
@@ -0,0 +1,21 @@
+package com.priteshchittrode.user_crud.user;
+import com.priteshchittrode.user_crud.response.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/admin/user-stats")
+@RequiredArgsConstructor
+public class UserStatsController {
+    private final UserStats userStats;
+
+
+    // Total users, active sessions and sign-ups per day, served from memory
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUserStats() {
+        return ResponseEntity.ok(ApiResponse.success(userStats.getStats(), "User stats fetched successfully"));
+    }
+}
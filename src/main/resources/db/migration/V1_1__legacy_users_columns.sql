@@ -0,0 +1,32 @@
+-- Databases created by the old ddl-auto=update are baselined at 0, V1 then skips their existing users
+-- table. Columns the entity gained since are added here, each only when missing (MySQL has no
+-- ADD COLUMN IF NOT EXISTS), so fresh databases created by V1 pass through unchanged. V1 itself is
+-- left as is, editing it would change its checksum for databases that already ran it.
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD COLUMN refresh_token VARCHAR(500)', 'DO 0')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'refresh_token');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD COLUMN created_at DATETIME(6)', 'DO 0')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'created_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD COLUMN updated_at DATETIME(6)', 'DO 0')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'updated_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD COLUMN deleted_at DATETIME(6)', 'DO 0')
+            FROM information_schema.columns
+            WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'deleted_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
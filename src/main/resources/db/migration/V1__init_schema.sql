@@ -0,0 +1,30 @@
+-- Schema as mapped by the entities. Tables use IF NOT EXISTS so databases created earlier by
+-- ddl-auto=update can be brought under Flyway (see spring.flyway.baseline-on-migrate).
+
+CREATE TABLE IF NOT EXISTS users (
+                       id BIGINT NOT NULL PRIMARY KEY,
+                       first_name VARCHAR(255) NOT NULL,
+                       last_name VARCHAR(255),
+                       email VARCHAR(255) NOT NULL,
+                       password VARCHAR(255),
+                       refresh_token VARCHAR(500),
+                       phone_number VARCHAR(15),
+                       address TEXT,
+                       created_at DATETIME(6),
+                       updated_at DATETIME(6),
+                       deleted_at DATETIME(6),
+                       CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- Global email -> user id directory, only used on shard 0 when users are sharded
+CREATE TABLE IF NOT EXISTS user_email_index (
+                       email VARCHAR(255) NOT NULL PRIMARY KEY,
+                       user_id BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS product_tbl (
+                       id INT NOT NULL PRIMARY KEY,
+                       name VARCHAR(255),
+                       quantity INT NOT NULL,
+                       price DOUBLE NOT NULL
+);
@@ -1,2 +0,0 @@
-ALTER TABLE users ADD COLUMN created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
-ALTER TABLE users ADD COLUMN updated_date TIMESTAMP;
@@ -0,0 +1,12 @@
+-- Purge job range scan (deleted_at < ?). Lookups by id and email are served by the
+-- primary key and uk_users_email, and keyset paging walks the primary key.
+CREATE INDEX idx_users_deleted_at ON users (deleted_at);
+
+-- pooled-lo id blocks for product_tbl, shared by Hibernate and ProductIdAllocator
+CREATE TABLE IF NOT EXISTS product_id_seq (
+                       next_val BIGINT
+);
+
+INSERT INTO product_id_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1 FROM product_tbl
+WHERE NOT EXISTS (SELECT 1 FROM product_id_seq);
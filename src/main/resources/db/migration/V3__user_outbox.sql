@@ -0,0 +1,21 @@
+-- Transactional outbox for user change events, published_seq is the consumer offset
+CREATE TABLE user_outbox (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       user_id BIGINT NOT NULL,
+                       event_type VARCHAR(32) NOT NULL,
+                       payload TEXT,
+                       created_at DATETIME(6) NOT NULL,
+                       published_seq BIGINT,
+                       published_at DATETIME(6)
+);
+
+-- NULLs first in id order for the relay, then offsets for consumers
+CREATE UNIQUE INDEX uk_user_outbox_published_seq ON user_outbox (published_seq);
+CREATE INDEX idx_user_outbox_published_at ON user_outbox (published_at);
+
+CREATE TABLE outbox_relay_state (
+                       id INT NOT NULL PRIMARY KEY,
+                       last_seq BIGINT NOT NULL
+);
+
+INSERT INTO outbox_relay_state (id, last_seq) VALUES (1, 0);
@@ -0,0 +1,3 @@
+-- Last authenticated request per user, written in batches by the presence flusher.
+-- Not mapped on User, so entity saves never overwrite it.
+ALTER TABLE users ADD COLUMN last_seen_at DATETIME(3) NULL;
@@ -0,0 +1,9 @@
+-- Ledger of stock reservations, a release returns exactly the recorded quantity and only once
+CREATE TABLE stock_reservation (
+                       id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                       product_id INT NOT NULL,
+                       user_id BIGINT NOT NULL,
+                       quantity INT NOT NULL,
+                       created_at DATETIME(6) NOT NULL,
+                       released_at DATETIME(6)
+);
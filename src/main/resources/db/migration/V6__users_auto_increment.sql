@@ -0,0 +1,3 @@
+-- Unsharded deployments take user ids from AUTO_INCREMENT again, Snowflake ids are only generated with
+-- sharding enabled. Explicit ids still insert as before, so shards are unaffected.
+ALTER TABLE users MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
@@ -0,0 +1,14 @@
+-- Stock each instance has leased out of product_tbl, returned by whoever finds its owner's heartbeat stale
+CREATE TABLE stock_lease_owner (
+                       owner VARCHAR(36) PRIMARY KEY,
+                       heartbeat_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_stock_lease_owner_heartbeat ON stock_lease_owner (heartbeat_at);
+
+CREATE TABLE stock_lease (
+                       owner VARCHAR(36) NOT NULL,
+                       product_id INT NOT NULL,
+                       quantity BIGINT NOT NULL,
+                       PRIMARY KEY (owner, product_id)
+);
@@ -0,0 +1,67 @@
+package com.priteshchittrode.user_crud.audit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSegmentWriterTest {
+    private static final long SEGMENT_MAX_BYTES = 16 * 1024;
+
+    @TempDir
+    Path directory;
+
+    static AuditRingBuffer.Entry entry(long i) {
+        AuditRingBuffer.Entry entry = new AuditRingBuffer.Entry();
+        entry.timestamp = 1_760_000_000_000L + i;
+        entry.action = AuditAction.values()[(int) (i % AuditAction.values().length)];
+        entry.userId = 381_234_567_890_123_457L + i * 7919;
+        entry.success = i % 5 != 0;
+        return entry;
+    }
+
+    @Test
+    void rollsOnCompressedSizeAndKeepsEveryLine() throws IOException {
+        AuditSegmentWriter writer = new AuditSegmentWriter(directory, SEGMENT_MAX_BYTES);
+        int events = 200_000;
+        for (int i = 0; i < events; i++) {
+            writer.write(entry(i));
+            if (i % 1000 == 999) {
+                writer.flush();
+            }
+        }
+        writer.close();
+
+        List<Path> segments = segments();
+        assertThat(segments.size()).isGreaterThan(1);
+        long lines = 0;
+        for (Path segment : segments) {
+            // Checked between flushes, so a segment ends at most one flush interval past the limit
+            assertThat(Files.size(segment)).isLessThan(2 * SEGMENT_MAX_BYTES);
+            lines += countLines(segment);
+        }
+        assertThat(lines).isEqualTo(events);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long countLines(Path segment) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+            return reader.lines().count();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.priteshchittrode.user_crud.security;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HmacJwtMinterTest {
+    private static final String SECRET_KEY = "javatechie_secret";
+    private static final long NOW = 1_760_000_000_123L;
+
+    private final HmacJwtMinter minter = new HmacJwtMinter(TextCodec.BASE64.decode(SECRET_KEY));
+
+    static String jjwtToken(long userId, long issuedAtMillis, long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject(String.valueOf(userId))
+                .setIssuedAt(new Date(issuedAtMillis))
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .compact();
+    }
+
+    @Test
+    void mintsTheSameBytesAsTheJjwtBuilder() {
+        // Small, typical and snowflake sized ids, payload lengths that hit every base64 remainder
+        long[] userIds = {0, 7, 42, 1_000_000, 381_234_567_890_123_457L, Long.MAX_VALUE};
+        long[] lifetimes = {1000L * 60 * 15, 1000L * 60 * 60 * 24 * 7, 1};
+        for (long userId : userIds) {
+            for (long lifetime : lifetimes) {
+                for (long issuedAt = NOW; issuedAt < NOW + 3000; issuedAt += 999) {
+                    assertThat(minter.mint(userId, issuedAt, issuedAt + lifetime))
+                            .as("userId=%d issuedAt=%d lifetime=%d", userId, issuedAt, lifetime)
+                            .isEqualTo(jjwtToken(userId, issuedAt, issuedAt + lifetime));
+                }
+            }
+        }
+    }
+
+    @Test
+    void jjwtParserAcceptsMintedTokens() {
+        long userId = 381_234_567_890_123_457L;
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        long issuedAt = expiresAt - 60_000;
+
+        Claims claims = Jwts.parser()
+                .setSigningKey(SECRET_KEY)
+                .parseClaimsJws(minter.mint(userId, issuedAt, expiresAt))
+                .getBody();
+
+        assertThat(claims.getSubject()).isEqualTo(String.valueOf(userId));
+        assertThat(claims.getIssuedAt()).isEqualTo(new Date(issuedAt / 1000 * 1000));
+        assertThat(claims.getExpiration()).isEqualTo(new Date(expiresAt / 1000 * 1000));
+    }
+
+    @Test
+    void reusesPerThreadBuffersWithoutLeakingState() {
+        String longer = minter.mint(Long.MAX_VALUE, NOW, NOW + 1000);
+        String shorter = minter.mint(1, NOW, NOW + 1000);
+
+        assertThat(shorter).isEqualTo(jjwtToken(1, NOW, NOW + 1000));
+        assertThat(longer).isEqualTo(jjwtToken(Long.MAX_VALUE, NOW, NOW + 1000));
+    }
+}